@@ -8,15 +8,14 @@ package net.minecraftforge.common;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import org.apache.logging.log4j.Level;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.google.common.base.Predicates;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
@@ -25,7 +24,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
-import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
@@ -41,7 +40,7 @@ import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.entity.Entity;
-import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.LongHashMap;
 import net.minecraft.util.MathHelper;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
@@ -51,6 +50,7 @@ import net.minecraftforge.common.config.ConfigCategory;
 import net.minecraftforge.common.config.Configuration;
 import net.minecraftforge.common.config.Property;
 import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.common.util.DormantChunkCache;
 
 /**
  * Manages chunkloading for mods.
@@ -83,15 +83,16 @@ public class ForgeChunkManager
 
     private static Map<String, LoadingCallback> callbacks = Maps.newHashMap();
 
-    private static Map<World, ImmutableSetMultimap<ChunkCoordIntPair,Ticket>> forcedChunks = new MapMaker().weakKeys().makeMap();
+    private static Map<World, ForcedChunkIndex> forcedChunks = new MapMaker().weakKeys().makeMap();
     private static BiMap<UUID,Ticket> pendingEntities = HashBiMap.create();
 
-    private static Map<World,Cache<Long, Chunk>> dormantChunkCache = new MapMaker().weakKeys().makeMap();
+    private static Map<World, DormantChunkCache> dormantChunkCache = new MapMaker().weakKeys().makeMap();
 
     private static File cfgFile;
     private static Configuration config;
     private static int playerTicketLength;
     private static int dormantChunkCacheSize;
+    private static int dormantChunkCacheMemory;
 
     public static final List<String> MOD_PROP_ORDER = new ArrayList<String>(2);
 
@@ -343,25 +344,129 @@ public class ForgeChunkManager
         }
     }
 
+    /**
+     * Fired after chunks were forced by a ticket. {@link #forceChunk(Ticket, ChunkCoordIntPair)} fires one event per chunk.
+     * Only {@link #forceChunks(Ticket, Collection)} fires a single event for the whole batch, {@link #location} is then the
+     * first chunk and {@link #locations} holds all of them.
+     */
     public static class ForceChunkEvent extends Event {
         public final Ticket ticket;
         public final ChunkCoordIntPair location;
+        public final ImmutableSet<ChunkCoordIntPair> locations;
 
         public ForceChunkEvent(Ticket ticket, ChunkCoordIntPair location)
+        {
+            this(ticket, ImmutableSet.of(location));
+        }
+
+        public ForceChunkEvent(Ticket ticket, ImmutableSet<ChunkCoordIntPair> locations)
         {
             this.ticket = ticket;
-            this.location = location;
+            this.location = locations.iterator().next();
+            this.locations = locations;
         }
     }
 
+    /**
+     * Fired after chunks were unforced by a ticket. Only {@link #unforceChunks(Ticket, Collection)} and the chunks pushed out
+     * of a ticket by {@link #forceChunks(Ticket, Collection)} are batched, the same way as {@link ForceChunkEvent}.
+     */
     public static class UnforceChunkEvent extends Event {
         public final Ticket ticket;
         public final ChunkCoordIntPair location;
+        public final ImmutableSet<ChunkCoordIntPair> locations;
 
         public UnforceChunkEvent(Ticket ticket, ChunkCoordIntPair location)
+        {
+            this(ticket, ImmutableSet.of(location));
+        }
+
+        public UnforceChunkEvent(Ticket ticket, ImmutableSet<ChunkCoordIntPair> locations)
         {
             this.ticket = ticket;
-            this.location = location;
+            this.location = locations.iterator().next();
+            this.locations = locations;
+        }
+    }
+
+    /**
+     * Forced chunks of a single world, keyed by {@link ChunkCoordIntPair#chunkXZ2Int(int, int)}.
+     * Changes are applied in place, the immutable view returned by {@link ForgeChunkManager#getPersistentChunksFor(World)}
+     * is only rebuilt the first time it is asked for after a change. The primitive keyed map lets the per entity
+     * checks of {@link #isChunkForced(World, int, int)} run without allocating.
+     */
+    private static class ForcedChunkIndex
+    {
+        private final LongHashMap chunks = new LongHashMap();
+        private final Set<ForcedChunk> order = Sets.newLinkedHashSet();
+        private volatile ImmutableSetMultimap<ChunkCoordIntPair, Ticket> snapshot = ImmutableSetMultimap.of();
+        private volatile boolean dirty = false;
+
+        void add(ChunkCoordIntPair chunk, Ticket ticket)
+        {
+            long key = ChunkCoordIntPair.chunkXZ2Int(chunk.chunkXPos, chunk.chunkZPos);
+            ForcedChunk forced = (ForcedChunk)chunks.getValueByKey(key);
+            if (forced == null)
+            {
+                forced = new ForcedChunk(chunk);
+                chunks.add(key, forced);
+                order.add(forced);
+            }
+            if (forced.tickets.add(ticket))
+            {
+                dirty = true;
+            }
+        }
+
+        void remove(ChunkCoordIntPair chunk, Ticket ticket)
+        {
+            long key = ChunkCoordIntPair.chunkXZ2Int(chunk.chunkXPos, chunk.chunkZPos);
+            ForcedChunk forced = (ForcedChunk)chunks.getValueByKey(key);
+            if (forced != null && forced.tickets.remove(ticket))
+            {
+                if (forced.tickets.isEmpty())
+                {
+                    chunks.remove(key);
+                    order.remove(forced);
+                }
+                dirty = true;
+            }
+        }
+
+        boolean contains(int chunkX, int chunkZ)
+        {
+            return chunks.containsItem(ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ));
+        }
+
+        boolean isEmpty()
+        {
+            return order.isEmpty();
+        }
+
+        ImmutableSetMultimap<ChunkCoordIntPair, Ticket> snapshot()
+        {
+            if (dirty)
+            {
+                ImmutableSetMultimap.Builder<ChunkCoordIntPair, Ticket> builder = ImmutableSetMultimap.builder();
+                for (ForcedChunk forced : order)
+                {
+                    builder.putAll(forced.pos, forced.tickets);
+                }
+                snapshot = builder.build();
+                dirty = false;
+            }
+            return snapshot;
+        }
+    }
+
+    private static class ForcedChunk
+    {
+        private final ChunkCoordIntPair pos;
+        private final Set<Ticket> tickets = Sets.newLinkedHashSet();
+
+        private ForcedChunk(ChunkCoordIntPair pos)
+        {
+            this.pos = pos;
         }
     }
 
@@ -398,14 +503,17 @@ public class ForgeChunkManager
         ArrayListMultimap<String, Ticket> newTickets = ArrayListMultimap.<String, Ticket>create();
         tickets.put(world, newTickets);
 
-        forcedChunks.put(world, ImmutableSetMultimap.<ChunkCoordIntPair,Ticket>of());
+        forcedChunks.put(world, new ForcedChunkIndex());
 
         if (!(world instanceof WorldServer))
         {
             return;
         }
 
-        dormantChunkCache.put(world, CacheBuilder.newBuilder().maximumSize(dormantChunkCacheSize).<Long, Chunk>build());
+        if (dormantChunkCacheSize > 0 || dormantChunkCacheMemory > 0)
+        {
+            dormantChunkCache.put(world, new DormantChunkCache(world, dormantChunkCacheSize, dormantChunkCacheMemory * 1024L * 1024L));
+        }
         WorldServer worldServer = (WorldServer) world;
         File chunkDir = worldServer.getChunkSaveLocation();
         File chunkLoaderData = new File(chunkDir, "forcedchunks.dat");
@@ -739,8 +847,7 @@ public class ForgeChunkManager
         ticket.requestedChunks.add(chunk);
         MinecraftForge.EVENT_BUS.post(new ForceChunkEvent(ticket, chunk));
 
-        ImmutableSetMultimap<ChunkCoordIntPair, Ticket> newMap = ImmutableSetMultimap.<ChunkCoordIntPair,Ticket>builder().putAll(forcedChunks.get(ticket.world)).put(chunk, ticket).build();
-        forcedChunks.put(ticket.world, newMap);
+        forcedChunks.get(ticket.world).add(chunk, ticket);
         if (ticket.maxDepth > 0 && ticket.requestedChunks.size() > ticket.maxDepth)
         {
             ChunkCoordIntPair removed = ticket.requestedChunks.iterator().next();
@@ -748,6 +855,47 @@ public class ForgeChunkManager
         }
     }
 
+    /**
+     * Force all the supplied chunks with one ticket. Works like calling {@link #forceChunk(Ticket, ChunkCoordIntPair)} for each of them,
+     * but fires a single {@link ForceChunkEvent}, and a single {@link UnforceChunkEvent} for the chunks pushed out by {@link Ticket#maxDepth}.
+     *
+     * @param ticket The ticket registering the chunks
+     * @param chunks The chunks to force, in order
+     */
+    public static void forceChunks(Ticket ticket, Collection<ChunkCoordIntPair> chunks)
+    {
+        if (ticket == null || chunks == null || chunks.isEmpty())
+        {
+            return;
+        }
+        if (ticket.ticketType == Type.ENTITY && ticket.entity == null)
+        {
+            throw new RuntimeException("Attempted to use an entity ticket to force a chunk, without an entity");
+        }
+        if (ticket.isPlayerTicket() ? !playerTickets.containsValue(ticket) : !tickets.get(ticket.world).containsEntry(ticket.modId, ticket))
+        {
+            FMLLog.severe("The mod %s attempted to force load a chunk with an invalid ticket. This is not permitted.", ticket.modId);
+            return;
+        }
+        ImmutableSet<ChunkCoordIntPair> added = ImmutableSet.copyOf(Iterables.filter(chunks, Predicates.notNull()));
+        if (added.isEmpty())
+        {
+            return;
+        }
+        ticket.requestedChunks.addAll(added);
+        MinecraftForge.EVENT_BUS.post(new ForceChunkEvent(ticket, added));
+
+        ForcedChunkIndex index = forcedChunks.get(ticket.world);
+        for (ChunkCoordIntPair chunk : added)
+        {
+            index.add(chunk, ticket);
+        }
+        if (ticket.maxDepth > 0 && ticket.requestedChunks.size() > ticket.maxDepth)
+        {
+            unforceChunks(ticket, ImmutableList.copyOf(Iterables.limit(ticket.requestedChunks, ticket.requestedChunks.size() - ticket.maxDepth)));
+        }
+    }
+
     /**
      * Reorganize the internal chunk list so that the chunk supplied is at the *end* of the list
      * This helps if you wish to guarantee a certain "automatic unload ordering" for the chunks
@@ -779,10 +927,33 @@ public class ForgeChunkManager
         }
         ticket.requestedChunks.remove(chunk);
         MinecraftForge.EVENT_BUS.post(new UnforceChunkEvent(ticket, chunk));
-        LinkedHashMultimap<ChunkCoordIntPair, Ticket> copy = LinkedHashMultimap.create(forcedChunks.get(ticket.world));
-        copy.remove(chunk, ticket);
-        ImmutableSetMultimap<ChunkCoordIntPair, Ticket> newMap = ImmutableSetMultimap.copyOf(copy);
-        forcedChunks.put(ticket.world,newMap);
+        forcedChunks.get(ticket.world).remove(chunk, ticket);
+    }
+
+    /**
+     * Unforce all the supplied chunks held by one ticket, firing a single {@link UnforceChunkEvent}.
+     *
+     * @param ticket The ticket holding the chunks
+     * @param chunks The chunks to unforce
+     */
+    public static void unforceChunks(Ticket ticket, Collection<ChunkCoordIntPair> chunks)
+    {
+        if (ticket == null || chunks == null || chunks.isEmpty())
+        {
+            return;
+        }
+        ImmutableSet<ChunkCoordIntPair> removed = ImmutableSet.copyOf(Iterables.filter(chunks, Predicates.notNull()));
+        if (removed.isEmpty())
+        {
+            return;
+        }
+        ticket.requestedChunks.removeAll(removed);
+        MinecraftForge.EVENT_BUS.post(new UnforceChunkEvent(ticket, removed));
+        ForcedChunkIndex index = forcedChunks.get(ticket.world);
+        for (ChunkCoordIntPair chunk : removed)
+        {
+            index.remove(chunk, ticket);
+        }
     }
 
     static void loadConfiguration()
@@ -807,13 +978,38 @@ public class ForgeChunkManager
     }
 
     /**
-     * The list of persistent chunks in the world. This set is immutable.
+     * The list of persistent chunks in the world. This set is immutable, and is a snapshot taken
+     * the first time it is requested after the forced chunks changed.
      * @param world
      * @return the list of persistent chunks in the world
      */
     public static ImmutableSetMultimap<ChunkCoordIntPair, Ticket> getPersistentChunksFor(World world)
     {
-        return forcedChunks.containsKey(world) ? forcedChunks.get(world) : ImmutableSetMultimap.<ChunkCoordIntPair,Ticket>of();
+        ForcedChunkIndex index = forcedChunks.get(world);
+        return index != null ? index.snapshot() : ImmutableSetMultimap.<ChunkCoordIntPair,Ticket>of();
+    }
+
+    /**
+     * Checks if a chunk is forced by any ticket, without building the persistent chunk map.
+     * @param world
+     * @param chunkX
+     * @param chunkZ
+     * @return true if the chunk is forced
+     */
+    public static boolean isChunkForced(World world, int chunkX, int chunkZ)
+    {
+        ForcedChunkIndex index = forcedChunks.get(world);
+        return index != null && index.contains(chunkX, chunkZ);
+    }
+
+    /**
+     * @param world
+     * @return true if any chunk of the world is forced
+     */
+    public static boolean hasForcedChunks(World world)
+    {
+        ForcedChunkIndex index = forcedChunks.get(world);
+        return index != null && !index.isEmpty();
     }
 
     static void saveWorld(World world)
@@ -894,34 +1090,26 @@ public class ForgeChunkManager
 
     public static void putDormantChunk(long coords, Chunk chunk)
     {
-        Cache<Long, Chunk> cache = dormantChunkCache.get(chunk.getWorld());
+        DormantChunkCache cache = dormantChunkCache.get(chunk.getWorld());
         if (cache != null)
         {
             cache.put(coords, chunk);
         }
     }
 
-    @SuppressWarnings("unchecked")
     public static Chunk fetchDormantChunk(long coords, World world)
     {
-        Cache<Long, Chunk> cache = dormantChunkCache.get(world);
-        if (cache == null)
-        {
-            return null;
-        }
-        Chunk chunk = cache.getIfPresent(coords);
-        if (chunk != null)
-        {
-            for (ClassInheritanceMultiMap eList : chunk.getEntityLists())
-            {
-                Iterator<Entity> itr = (Iterator<Entity>)eList.iterator();
-                while (itr.hasNext())
-                {
-                    (itr.next()).resetEntityId();
-                }
-            }
-        }
-        return chunk;
+        DormantChunkCache cache = dormantChunkCache.get(world);
+        return cache == null ? null : cache.fetch(coords);
+    }
+
+    /**
+     * The usage of the dormant chunk cache of the world, or null if the world has none.
+     */
+    public static DormantChunkCache.Stats getDormantChunkCacheStats(World world)
+    {
+        DormantChunkCache cache = dormantChunkCache.get(world);
+        return cache == null ? null : cache.getStats();
     }
 
     static void captureConfig(File configDir)
@@ -993,7 +1181,15 @@ public class ForgeChunkManager
         temp.setMinValue(0);
         dormantChunkCacheSize = temp.getInt(0);
         propOrder.add("dormantChunkCacheSize");
-        FMLLog.info("Configured a dormant chunk cache size of %d", temp.getInt(0));
+
+        temp = config.get("defaults", "dormantChunkCacheMemory", 0);
+        temp.comment = "Maximum estimated memory (in megabytes) used by the dormant chunk cache\n" +
+                    "of each world, 0 for no limit. Chunks farthest away from players are dropped first";
+        temp.setLanguageKey("forge.configgui.dormantChunkCacheMemory");
+        temp.setMinValue(0);
+        dormantChunkCacheMemory = temp.getInt(0);
+        propOrder.add("dormantChunkCacheMemory");
+        FMLLog.info("Configured a dormant chunk cache size of %d chunks, %d MB", dormantChunkCacheSize, dormantChunkCacheMemory);
 
         config.setCategoryPropertyOrder("defaults", propOrder);
 
@@ -331,6 +331,7 @@ public class ForgeHooks
 
     public static boolean onLivingUpdate(EntityLivingBase entity)
     {
+        if (!MinecraftForge.EVENT_BUS.hasListeners(LivingUpdateEvent.class)) return false;
         return MinecraftForge.EVENT_BUS.post(new LivingUpdateEvent(entity));
     }
 
@@ -601,13 +602,13 @@ public class ForgeHooks
             if (placeEvent != null && (placeEvent.isCanceled()))
             {
                 flag = false; // cancel placement
-                // revert back all captured blocks
-                for (net.minecraftforge.common.util.BlockSnapshot blocksnapshot : blockSnapshots)
+                // revert back all captured blocks, last change first
+                world.restoringBlockSnapshots = true;
+                for (int i = blockSnapshots.size() - 1; i >= 0; i--)
                 {
-                    world.restoringBlockSnapshots = true;
-                    blocksnapshot.restore(true, false);
-                    world.restoringBlockSnapshots = false;
+                    blockSnapshots.get(i).restore(true, false);
                 }
+                world.restoringBlockSnapshots = false;
             }
             else
             {
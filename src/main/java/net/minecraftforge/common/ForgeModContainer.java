@@ -70,6 +70,9 @@ public class ForgeModContainer extends DummyModContainer implements WorldAccessC
     public static boolean disableVersionCheck = false;
     public static int defaultSpawnFuzz = 20;
     public static boolean defaultHasSpawnFuzz = true;
+    public static int[] chunkIOThreads = { 1, 1, 1, 1 };
+    public static int chunkIOFinishBudget = 10;
+    public static boolean chunkIOMappedReads = false;
 
     private static Configuration config;
 
@@ -222,6 +225,31 @@ public class ForgeModContainer extends DummyModContainer implements WorldAccessC
         defaultHasSpawnFuzz = prop.getBoolean(Boolean.TRUE);
         propOrder.add(prop.getName());
 
+        prop = config.get(Configuration.CATEGORY_GENERAL, "chunkIOThreads", new int[] { 1, 1, 1, 1 },
+                "Minimum number of threads for each asynchronous chunk loading step: region file reads, inflating, NBT parsing and chunk decoding. More are added as players join.",
+                1, 32, true, 4);
+        prop.setLanguageKey("forge.configgui.chunkIOThreads").setRequiresMcRestart(true);
+        chunkIOThreads = prop.getIntList();
+        if (chunkIOThreads.length != 4)
+        {
+            chunkIOThreads = new int[] { 1, 1, 1, 1 };
+            prop.set(chunkIOThreads);
+        }
+        propOrder.add(prop.getName());
+
+        prop = config.get(Configuration.CATEGORY_GENERAL, "chunkIOFinishBudget", 10,
+                "Milliseconds per tick the server may spend finishing asynchronously loaded chunks (entities, structures, population). Remaining chunks are finished on the next tick. 0 finishes all of them every tick.",
+                0, 1000);
+        prop.setLanguageKey("forge.configgui.chunkIOFinishBudget");
+        chunkIOFinishBudget = prop.getInt(10);
+        propOrder.add(prop.getName());
+
+        prop = config.get(Configuration.CATEGORY_GENERAL, "chunkIOMappedReads", false,
+                "Memory map region files for asynchronous chunk reads instead of reading them through a file handle. Mapped files stay open until they are garbage collected, which can keep them from being deleted on some systems.");
+        prop.setLanguageKey("forge.configgui.chunkIOMappedReads");
+        chunkIOMappedReads = prop.getBoolean(false);
+        propOrder.add(prop.getName());
+
         config.setCategoryPropertyOrder(CATEGORY_GENERAL, propOrder);
 
         if (config.hasChanged())
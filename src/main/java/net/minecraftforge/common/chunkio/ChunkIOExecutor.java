@@ -1,10 +1,14 @@
 package net.minecraftforge.common.chunkio;
 
+import net.minecraftforge.common.ForgeModContainer;
 import net.minecraftforge.common.util.AsynchronousExecutor;
 
 public class ChunkIOExecutor {
     static final int BASE_THREADS = 1;
     static final int PLAYERS_PER_THREAD = 50;
+    static final int REPRIORITIZE_INTERVAL = 10;
+
+    private static int ticks = 0;
 
     private static final AsynchronousExecutor<QueuedChunk, net.minecraft.world.chunk.Chunk, Runnable, RuntimeException> instance = new AsynchronousExecutor<QueuedChunk, net.minecraft.world.chunk.Chunk, Runnable, RuntimeException>(new ChunkIOProvider(), BASE_THREADS);
 
@@ -22,11 +26,18 @@ public class ChunkIOExecutor {
     }
 
     public static void adjustPoolSize(int players) {
-        int size = Math.max(BASE_THREADS, (int) Math.ceil(players / PLAYERS_PER_THREAD));
-        instance.setActiveThreads(size);
+        int extra = (int) Math.ceil(players / (double) PLAYERS_PER_THREAD);
+        for (int step = 0; step < instance.getStepCount(); step++) {
+            instance.setActiveThreads(step, Math.max(BASE_THREADS, Math.max(ForgeModContainer.chunkIOThreads[step], extra)));
+        }
     }
 
+    // Finishes loaded chunks on the main thread, for at most the configured time so a burst of loads is spread over several ticks
     public static void tick() {
-        instance.finishActive();
+        // Players move, so the closest chunks change
+        if (++ticks % REPRIORITIZE_INTERVAL == 0) {
+            instance.reprioritize();
+        }
+        instance.finishActive(ForgeModContainer.chunkIOFinishBudget * 1000000L);
     }
 }
\ No newline at end of file
@@ -1,33 +1,120 @@
 package net.minecraftforge.common.chunkio;
 
 
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraft.world.chunk.storage.RegionFileCache;
+import net.minecraftforge.common.ForgeModContainer;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.util.AsynchronousExecutor;
+import net.minecraftforge.common.util.ChunkCoordComparator;
 import net.minecraftforge.event.world.ChunkDataEvent;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Loads chunks in four asynchronous steps, each on its own pool:
+ * reading the compressed data from the region file, inflating it, parsing the NBT and decoding the chunk sections.
+ * Chunks that are still waiting to be saved skip straight to decoding their pending NBT.
+ * Queued chunks are loaded closest to a player first, favouring the ones the player is looking or flying towards.
+ */
+class ChunkIOProvider implements AsynchronousExecutor.StagedCallBackProvider<QueuedChunk, net.minecraft.world.chunk.Chunk, Runnable, RuntimeException>,
+        AsynchronousExecutor.PriorityCallBackProvider<QueuedChunk, net.minecraft.world.chunk.Chunk, Runnable, RuntimeException> {
+    static final int STEP_READ = 0;
+    static final int STEP_INFLATE = 1;
+    static final int STEP_PARSE = 2;
+    static final int STEP_DECODE = 3;
+    static final int STEP_COUNT = 4;
 
-class ChunkIOProvider implements AsynchronousExecutor.CallBackProvider<QueuedChunk, net.minecraft.world.chunk.Chunk, Runnable, RuntimeException> {
     private final AtomicInteger threadNumber = new AtomicInteger(1);
 
     // async stuff
     public net.minecraft.world.chunk.Chunk callStage1(QueuedChunk queuedChunk) throws RuntimeException {
-        net.minecraft.world.chunk.storage.AnvilChunkLoader loader = queuedChunk.loader;
-        Object[] data = null;
+        Object data = null;
+        for (int step = 0; step < STEP_COUNT; step++) {
+            data = callStage1Step(step, queuedChunk, data);
+        }
+        return (net.minecraft.world.chunk.Chunk) data;
+    }
+
+    public int getStepCount() {
+        return STEP_COUNT;
+    }
+
+    public int getStepThreads(int step) {
+        return ForgeModContainer.chunkIOThreads[step];
+    }
+
+    // sync, called when queued and on reprioritize
+    public double getPriority(QueuedChunk queuedChunk) {
+        double priority = Double.MAX_VALUE;
+        for (Object player : queuedChunk.world.playerEntities) {
+            priority = Math.min(priority, ChunkCoordComparator.getWeightedDistance((EntityPlayer) player, queuedChunk.x, queuedChunk.z));
+        }
+        return priority;
+    }
+
+    public Object callStage1Step(int step, QueuedChunk queuedChunk, Object data) throws RuntimeException {
         try {
-            data = loader.loadChunk__Async(queuedChunk.world, queuedChunk.x, queuedChunk.z);
+            switch (step) {
+                case STEP_READ:
+                    NBTTagCompound pending = queuedChunk.loader.getPendingSaveData(queuedChunk.x, queuedChunk.z);
+                    if (pending != null) {
+                        return pending;
+                    }
+                    return RegionFileCache.createOrLoadRegionFile(queuedChunk.loader.getChunkSaveLocation(), queuedChunk.x, queuedChunk.z).getChunkRawData(queuedChunk.x & 31, queuedChunk.z & 31);
+                case STEP_INFLATE:
+                    return data instanceof byte[] ? inflate((byte[]) data) : data;
+                case STEP_PARSE:
+                    return data instanceof byte[] ? CompressedStreamTools.read(new DataInputStream(new ByteArrayInputStream((byte[]) data))) : data;
+                case STEP_DECODE:
+                    if (data == null) {
+                        return null;
+                    }
+                    Object[] chunk = queuedChunk.loader.checkedReadChunkFromNBT__Async(queuedChunk.world, queuedChunk.x, queuedChunk.z, (NBTTagCompound) data);
+                    if (chunk == null) {
+                        return null;
+                    }
+                    queuedChunk.compound = (NBTTagCompound) chunk[1];
+                    return chunk[0];
+                default:
+                    throw new IllegalArgumentException("Unknown chunk I/O step " + step);
+            }
         } catch (IOException e) {
             e.printStackTrace();
+            return null;
         }
+    }
 
-        if (data != null) {
-            queuedChunk.compound = (net.minecraft.nbt.NBTTagCompound) data[1];
-            return (net.minecraft.world.chunk.Chunk) data[0];
+    private static byte[] inflate(byte[] raw) throws IOException {
+        InputStream in;
+        if (raw[0] == 1) {
+            in = new GZIPInputStream(new ByteArrayInputStream(raw, 1, raw.length - 1));
+        } else if (raw[0] == 2) {
+            in = new InflaterInputStream(new ByteArrayInputStream(raw, 1, raw.length - 1));
+        } else {
+            return null;
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length * 4);
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
         }
-
-        return null;
     }
 
     // sync stuff
@@ -39,7 +126,10 @@ class ChunkIOProvider implements AsynchronousExecutor.CallBackProvider<QueuedChu
         }
 
         queuedChunk.loader.loadEntities(queuedChunk.world, queuedChunk.compound.getCompoundTag("Level"), chunk);
-        MinecraftForge.EVENT_BUS.post(new ChunkDataEvent.Load(chunk, queuedChunk.compound)); // Don't call ChunkDataEvent.Load async
+        if (MinecraftForge.EVENT_BUS.hasListeners(ChunkDataEvent.Load.class))
+        {
+            MinecraftForge.EVENT_BUS.post(new ChunkDataEvent.Load(chunk, queuedChunk.compound)); // Don't call ChunkDataEvent.Load async
+        }
         chunk.setLastSaveTime(queuedChunk.provider.worldObj.getTotalWorldTime());
         queuedChunk.provider.id2ChunkMap.add(ChunkCoordIntPair.chunkXZ2Int(queuedChunk.x, queuedChunk.z), chunk);
         queuedChunk.provider.loadedChunks.add(chunk);
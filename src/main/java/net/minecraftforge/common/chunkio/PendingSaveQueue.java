@@ -0,0 +1,72 @@
+package net.minecraftforge.common.chunkio;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.ChunkCoordIntPair;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Chunks of an AnvilChunkLoader waiting to be written, in the order they were first saved.
+ *
+ * Saving a chunk that is already queued replaces its data but keeps its place in the queue. The file IO thread
+ * drains the queue in batches, the drained chunks stay visible to {@link #get(ChunkCoordIntPair)} until they
+ * are written, so loads never fall back to the older data in the region file.
+ */
+public class PendingSaveQueue {
+    private final LinkedHashMap<ChunkCoordIntPair, NBTTagCompound> queued = new LinkedHashMap<ChunkCoordIntPair, NBTTagCompound>();
+    private final Map<ChunkCoordIntPair, NBTTagCompound> writing = new HashMap<ChunkCoordIntPair, NBTTagCompound>();
+
+    /**
+     * @return true if the chunk was not queued yet, so the loader has to be handed to the file IO thread
+     */
+    public synchronized boolean add(ChunkCoordIntPair pos, NBTTagCompound data) {
+        return queued.put(pos, data) == null;
+    }
+
+    /**
+     * Returns the most recent data of the chunk that isn't written yet, or null.
+     */
+    public synchronized NBTTagCompound get(ChunkCoordIntPair pos) {
+        NBTTagCompound data = queued.get(pos);
+        return data != null ? data : writing.get(pos);
+    }
+
+    public synchronized boolean contains(ChunkCoordIntPair pos) {
+        return queued.containsKey(pos) || writing.containsKey(pos);
+    }
+
+    /**
+     * Takes up to max of the oldest queued chunks for writing.
+     */
+    public synchronized List<Map.Entry<ChunkCoordIntPair, NBTTagCompound>> drain(int max) {
+        List<Map.Entry<ChunkCoordIntPair, NBTTagCompound>> batch = new ArrayList<Map.Entry<ChunkCoordIntPair, NBTTagCompound>>(Math.min(max, queued.size()));
+        Iterator<Map.Entry<ChunkCoordIntPair, NBTTagCompound>> itr = queued.entrySet().iterator();
+        while (itr.hasNext() && batch.size() < max) {
+            Map.Entry<ChunkCoordIntPair, NBTTagCompound> entry = itr.next();
+            batch.add(Maps.immutableEntry(entry.getKey(), entry.getValue()));
+            writing.put(entry.getKey(), entry.getValue());
+            itr.remove();
+        }
+        return batch;
+    }
+
+    /**
+     * Called once drained data is in the region file.
+     */
+    public synchronized void written(ChunkCoordIntPair pos, NBTTagCompound data) {
+        if (writing.get(pos) == data) {
+            writing.remove(pos);
+        }
+    }
+
+    public synchronized int size() {
+        return queued.size();
+    }
+}
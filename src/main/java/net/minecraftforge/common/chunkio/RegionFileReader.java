@@ -0,0 +1,167 @@
+package net.minecraftforge.common.chunkio;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import net.minecraftforge.common.ForgeModContainer;
+
+/**
+ * Read side of a RegionFile used by the chunk IO threads, so they don't serialize on the RegionFile monitor.
+ *
+ * Chunks are guarded by a small set of read/write locks picked by their position in the region. The RegionFile
+ * takes the write lock of a chunk for as long as it writes it, readers take the read lock while they look up
+ * the offset and copy the data, so reads of different chunks and of the same chunk run concurrently and never
+ * see a half written chunk. Reads go through a second, read only handle to the file, either memory mapped
+ * (chunkIOMappedReads) or with positional reads.
+ */
+public class RegionFileReader {
+    private static final int STRIPES = 16;
+    private static final int SECTOR_BYTES = 4096;
+
+    private final ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[STRIPES];
+    private RandomAccessFile file;
+    private FileChannel channel;
+    private volatile MappedByteBuffer mapped;
+    private boolean closed = false;
+
+    public RegionFileReader() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    public Lock readLock(int x, int z) {
+        return locks[stripe(x, z)].readLock();
+    }
+
+    public Lock writeLock(int x, int z) {
+        return locks[stripe(x, z)].writeLock();
+    }
+
+    private static int stripe(int x, int z) {
+        // An odd step for z spreads a column of chunks over every stripe, like a row
+        return ((x & 31) + (z & 31) * 5) % STRIPES;
+    }
+
+    /**
+     * Reads the length prefixed data of a chunk, the first byte of the result is the compression type.
+     * The caller must hold the read lock of the chunk.
+     *
+     * @return the data, or null if the stored length doesn't fit the sectors
+     */
+    public byte[] read(File path, int sectorNumber, int numSectors) throws IOException {
+        long position = (long) sectorNumber * SECTOR_BYTES;
+        int length = readInt(path, position);
+
+        if (length > SECTOR_BYTES * numSectors || length <= 0) {
+            return null;
+        }
+
+        byte[] data = new byte[length];
+        readFully(path, position + 4, data);
+        return data;
+    }
+
+    /**
+     * Reads the compression type of a chunk, or 0 if the stored length doesn't fit the sectors.
+     * The caller must hold the read lock of the chunk.
+     */
+    public byte readVersion(File path, int sectorNumber, int numSectors) throws IOException {
+        long position = (long) sectorNumber * SECTOR_BYTES;
+        int length = readInt(path, position);
+
+        if (length > SECTOR_BYTES * numSectors || length <= 0) {
+            return 0;
+        }
+
+        byte[] version = new byte[1];
+        readFully(path, position + 4, version);
+        return version[0];
+    }
+
+    public synchronized void close() throws IOException {
+        closed = true;
+        mapped = null;
+        if (file != null) {
+            file.close();
+            file = null;
+            channel = null;
+        }
+    }
+
+    private int readInt(File path, long position) throws IOException {
+        byte[] buf = new byte[4];
+        readFully(path, position, buf);
+        return ((buf[0] & 0xFF) << 24) | ((buf[1] & 0xFF) << 16) | ((buf[2] & 0xFF) << 8) | (buf[3] & 0xFF);
+    }
+
+    private void readFully(File path, long position, byte[] dst) throws IOException {
+        if (ForgeModContainer.chunkIOMappedReads) {
+            MappedByteBuffer buffer = mapped;
+            if (buffer == null || position + dst.length > buffer.capacity()) {
+                // The region grew since it was mapped, the new sectors are only visible in a new mapping
+                buffer = remap(path, position + dst.length);
+            }
+            ByteBuffer view = buffer.duplicate();
+            view.position((int) position);
+            view.get(dst);
+            return;
+        }
+
+        FileChannel ch = channel(path);
+        ByteBuffer buf = ByteBuffer.wrap(dst);
+        try {
+            while (buf.hasRemaining()) {
+                int read = ch.read(buf, position + buf.position());
+                if (read < 0) {
+                    throw new IOException("Unexpected end of region file " + path);
+                }
+            }
+        } catch (ClosedChannelException e) {
+            // An interrupted reader closes the channel for everyone, open a new one on the next read
+            reopen(ch);
+            throw e;
+        }
+    }
+
+    private synchronized void reopen(FileChannel ch) throws IOException {
+        if (channel == ch) {
+            file.close();
+            file = null;
+            channel = null;
+        }
+    }
+
+    private synchronized FileChannel channel(File path) throws IOException {
+        if (closed) {
+            throw new IOException("Region file " + path + " is closed");
+        }
+        if (channel == null) {
+            file = new RandomAccessFile(path, "r");
+            channel = file.getChannel();
+        }
+        return channel;
+    }
+
+    private synchronized MappedByteBuffer remap(File path, long required) throws IOException {
+        MappedByteBuffer buffer = mapped;
+        if (buffer != null && required <= buffer.capacity()) {
+            return buffer;
+        }
+        FileChannel ch = channel(path);
+        long size = ch.size();
+        if (required > size || size > Integer.MAX_VALUE) {
+            throw new IOException("Read past the end of region file " + path);
+        }
+        buffer = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        mapped = buffer;
+        return buffer;
+    }
+}
@@ -1,12 +1,16 @@
 package net.minecraftforge.common.util;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -17,7 +21,8 @@ import net.minecraftforge.fml.common.FMLLog;
 
 /**
  * Executes tasks using a multi-stage process executor. Synchronous executions are via {@link AsynchronousExecutor#finishActive()} or the {@link AsynchronousExecutor#get(Object)} methods.
- * <li \> Stage 1 creates the object from a parameter, and is usually called asynchronously.
+ * <li \> Stage 1 creates the object from a parameter, and is usually called asynchronously. A {@link StagedCallBackProvider} may split it into steps that each run on their own pool.
+ * A {@link PriorityCallBackProvider} orders the waiting parameters instead of running them first come, first served.
  * <li \> Stage 2 takes the parameter and object from stage 1 and does any synchronous processing to prepare it.
  * <li \> Stage 3 takes the parameter and object from stage 1, as well as a callback that was registered, and performs any synchronous calculations.
  *
@@ -57,6 +62,50 @@ public final class AsynchronousExecutor<P, T, C, E extends Throwable> {
         void callStage3(P parameter, T object, C callback) throws E;
     }
 
+    /**
+     * A provider that splits stage 1 into several asynchronous steps, for example I/O followed by CPU bound work.
+     * Every step has its own thread pool, so each can be sized for its kind of work.
+     * {@link #callStage1(Object)} must still do all steps in one go, it is used for synchronous requests.
+     */
+    public static interface StagedCallBackProvider<P, T, C, E extends Throwable> extends CallBackProvider<P, T, C, E> {
+
+        /**
+         * @return the number of steps stage 1 is split into, at least one
+         */
+        int getStepCount();
+
+        /**
+         * @param step the step index
+         * @return the initial number of threads for the pool of the step
+         */
+        int getStepThreads(int step);
+
+        /**
+         * Asynchronous call, unless a synchronous request catches the task between steps
+         *
+         * @param step      the step index, starting at 0
+         * @param parameter parameter object provided
+         * @param previous  the result of the previous step, null for the first one
+         * @return the input of the next step, or the created object for the last step
+         */
+        Object callStage1Step(int step, P parameter, Object previous) throws E;
+    }
+
+    /**
+     * A provider that decides the order in which queued parameters start stage 1.
+     * Priorities are only computed synchronously, when a parameter is added and on {@link AsynchronousExecutor#reprioritize()}.
+     */
+    public static interface PriorityCallBackProvider<P, T, C, E extends Throwable> extends CallBackProvider<P, T, C, E> {
+
+        /**
+         * Synchronous call
+         *
+         * @param parameter parameter object provided
+         * @return the priority of the parameter, lower values are processed first
+         */
+        double getPriority(P parameter);
+    }
+
     @SuppressWarnings("rawtypes")
     static final AtomicIntegerFieldUpdater STATE_FIELD = AtomicIntegerFieldUpdater.newUpdater(AsynchronousExecutor.Task.class, "state");
 
@@ -75,6 +124,12 @@ public final class AsynchronousExecutor<P, T, C, E extends Throwable> {
         volatile int state = PENDING;
         final P parameter;
         T object;
+        // Progress through the steps of a staged provider, only touched by whoever owns the state
+        int step = 0;
+        Object partial;
+        // Only changed while the task is not in a pool queue
+        double priority;
+        final long sequence = nextSequence++;
         final List<C> callbacks = new LinkedList<C>();
         E t = null;
 
@@ -90,6 +145,10 @@ public final class AsynchronousExecutor<P, T, C, E extends Throwable> {
 
         boolean initAsync() {
             if (set(this, PENDING, STAGE_1_ASYNC)) {
+                if (handOff()) {
+                    // The next step was queued on its own pool
+                    return false;
+                }
                 boolean ret = true;
 
                 try {
@@ -145,8 +204,50 @@ public final class AsynchronousExecutor<P, T, C, E extends Throwable> {
             }
         }
 
+        /**
+         * Runs the current step of a staged provider and passes the task on to the pool of the next one.
+         * The last step is left to {@link #init()}.
+         *
+         * @return true if the task was queued for the next step
+         */
+        boolean handOff() {
+            if (staged == null || step >= stepPools.length - 1) {
+                return false;
+            }
+            runStep();
+            if (t != null) {
+                return false;
+            }
+            // Pick the pool before handing off, once the task is PENDING a sync load may run the remaining steps
+            final ThreadPoolExecutor next = stepPools[step];
+            if (set(this, STAGE_1_ASYNC, PENDING)) {
+                next.execute(this);
+                return true;
+            }
+            // A synchronous request is waiting for us, finish the remaining steps right here
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        void runStep() {
+            try {
+                partial = staged.callStage1Step(step, parameter, partial);
+                step++;
+            } catch (final Throwable t) {
+                this.t = (E) t;
+            }
+        }
+
         @SuppressWarnings("unchecked")
         void init() {
+            if (staged != null) {
+                while (t == null && step < stepPools.length) {
+                    runStep();
+                }
+                object = (T) partial;
+                partial = null;
+                return;
+            }
             try {
                 object = provider.callStage1(parameter);
             } catch (final Throwable t) {
@@ -216,22 +317,55 @@ public final class AsynchronousExecutor<P, T, C, E extends Throwable> {
     }
 
     final CallBackProvider<P, T, C, E> provider;
+    final StagedCallBackProvider<P, T, C, E> staged;
     final Queue<Task> finished = new ConcurrentLinkedQueue<Task>();
     final Map<P, Task> tasks = new HashMap<P, Task>();
     final ThreadPoolExecutor pool;
+    final ThreadPoolExecutor[] stepPools;
+    final PriorityCallBackProvider<P, T, C, E> priorities;
+    long nextSequence = 0;
+
+    // Lowest priority first, in the order they were added when equal
+    private final Comparator<Runnable> taskOrder = new Comparator<Runnable>() {
+        @SuppressWarnings("unchecked")
+        public int compare(Runnable a, Runnable b) {
+            Task x = (Task) a;
+            Task y = (Task) b;
+            int ret = Double.compare(x.priority, y.priority);
+            return ret != 0 ? ret : (x.sequence < y.sequence ? -1 : (x.sequence == y.sequence ? 0 : 1));
+        }
+    };
 
     /**
      * Uses a thread pool to pass executions to the provider.
      * @see AsynchronousExecutor
      */
+    @SuppressWarnings("unchecked")
     public AsynchronousExecutor(final CallBackProvider<P, T, C, E> provider, final int coreSize) {
         if (provider == null) {
             throw new IllegalArgumentException("Provider cannot be null");
         }
         this.provider = provider;
+        this.priorities = provider instanceof PriorityCallBackProvider ? (PriorityCallBackProvider<P, T, C, E>) provider : null;
 
+        if (provider instanceof StagedCallBackProvider) {
+            staged = (StagedCallBackProvider<P, T, C, E>) provider;
+            stepPools = new ThreadPoolExecutor[staged.getStepCount()];
+            for (int i = 0; i < stepPools.length; i++) {
+                stepPools[i] = newPool(Math.max(coreSize, staged.getStepThreads(i)));
+            }
+            pool = stepPools[0];
+        } else {
+            staged = null;
+            pool = newPool(coreSize);
+            stepPools = new ThreadPoolExecutor[] { pool };
+        }
+    }
+
+    private ThreadPoolExecutor newPool(final int coreSize) {
         // We have an unbound queue size so do not need a max thread size
-        pool = new ThreadPoolExecutor(coreSize, Integer.MAX_VALUE, 60l, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), provider);
+        BlockingQueue<Runnable> queue = priorities != null ? new PriorityBlockingQueue<Runnable>(64, taskOrder) : new LinkedBlockingQueue<Runnable>();
+        return new ThreadPoolExecutor(coreSize, Integer.MAX_VALUE, 60l, TimeUnit.SECONDS, queue, provider);
     }
 
     /**
@@ -243,6 +377,9 @@ public final class AsynchronousExecutor<P, T, C, E extends Throwable> {
         Task task = tasks.get(parameter);
         if (task == null) {
             tasks.put(parameter, task = new Task(parameter));
+            if (priorities != null) {
+                task.priority = priorities.getPriority(parameter);
+            }
             pool.execute(task);
         }
         task.callbacks.add(callback);
@@ -355,7 +492,69 @@ public final class AsynchronousExecutor<P, T, C, E extends Throwable> {
         }
     }
 
+    /**
+     * Like {@link #finishActive()}, but stops once the time budget is used up. At least one task is finished per call,
+     * anything left over stays queued for the next call.
+     *
+     * @param maxNanos the time budget, 0 or less to finish everything
+     */
+    public void finishActive(final long maxNanos) throws E {
+        if (maxNanos <= 0) {
+            finishActive();
+            return;
+        }
+        final Queue<Task> finished = this.finished;
+        final long end = System.nanoTime() + maxNanos;
+        while (!finished.isEmpty()) {
+            finished.poll().finish();
+            if (System.nanoTime() - end >= 0) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Recomputes the priority of every task that is still waiting in a pool, and forgets the ones that were dropped.
+     * Does nothing unless the provider is a {@link PriorityCallBackProvider}.
+     * <p>
+     * This should always be synchronous.
+     */
+    @SuppressWarnings("unchecked")
+    public void reprioritize() {
+        if (priorities == null) {
+            return;
+        }
+        for (ThreadPoolExecutor stepPool : stepPools) {
+            final BlockingQueue<Runnable> queue = stepPool.getQueue();
+            if (queue.isEmpty()) {
+                continue;
+            }
+            final List<Runnable> waiting = new ArrayList<Runnable>(queue.size());
+            queue.drainTo(waiting);
+            for (Runnable runnable : waiting) {
+                final Task task = (Task) runnable;
+                if (task.state == Task.FINISHED) {
+                    // Dropped while waiting, running it would be a no-op anyway
+                    continue;
+                }
+                task.priority = priorities.getPriority(task.parameter);
+                queue.add(task);
+            }
+        }
+    }
+
     public void setActiveThreads(final int coreSize) {
         pool.setCorePoolSize(coreSize);
     }
+
+    /**
+     * Sets the number of threads of one step of a {@link StagedCallBackProvider}, the only pool for other providers is step 0.
+     */
+    public void setActiveThreads(final int step, final int coreSize) {
+        stepPools[step].setCorePoolSize(coreSize);
+    }
+
+    public int getStepCount() {
+        return stepPools.length;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package net.minecraftforge.common.util;
+
+import java.util.List;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.BlockPos;
+import net.minecraft.util.LongHashMap;
+import net.minecraft.world.World;
+
+/**
+ * Fills World.capturedBlockSnapshots while a world captures block changes.
+ *
+ * Only the first change to a position is captured, as that snapshot holds the state to restore.
+ * Later changes to the same position only add their update flags to it, so placing a large
+ * structure takes one snapshot, and at most one tile entity write, per position. The positions are
+ * looked up by their packed BlockPos, the index is checked against the list so mods clearing or
+ * editing the list themselves only lose the merging, never a snapshot.
+ */
+public class BlockSnapshotCapture
+{
+    private LongHashMap index = new LongHashMap();
+
+    /**
+     * Captures the current block at pos before it is changed.
+     *
+     * @return the new snapshot, or null if the position was already captured
+     */
+    public BlockSnapshot capture(World world, List<BlockSnapshot> captured, BlockPos pos, int flag)
+    {
+        if (captured.isEmpty() && index.getNumHashElements() > 0)
+        {
+            index = new LongHashMap();
+        }
+
+        long key = pos.toLong();
+        Integer at = (Integer)index.getValueByKey(key);
+        if (at != null && at < captured.size())
+        {
+            BlockSnapshot existing = captured.get(at);
+            if (existing.world == world && existing.pos.equals(pos))
+            {
+                existing.flag |= flag;
+                return null;
+            }
+        }
+
+        IBlockState state = world.getBlockState(pos);
+        NBTTagCompound nbt = null;
+        // Looking up the tile entity of a block without one could create it
+        if (state.getBlock().hasTileEntity(state))
+        {
+            TileEntity te = world.getTileEntity(pos);
+            if (te != null)
+            {
+                nbt = new NBTTagCompound();
+                te.writeToNBT(nbt);
+            }
+        }
+
+        BlockSnapshot snapshot = new BlockSnapshot(world, pos, state, nbt);
+        snapshot.flag = flag;
+        index.add(key, captured.size());
+        captured.add(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Drops a snapshot whose change did not happen, usually the last one captured.
+     */
+    public void discard(List<BlockSnapshot> captured, BlockSnapshot snapshot)
+    {
+        int last = captured.size() - 1;
+        if (last >= 0 && captured.get(last) == snapshot)
+        {
+            captured.remove(last);
+        }
+        else
+        {
+            captured.remove(snapshot);
+        }
+        index.remove(snapshot.pos.toLong());
+    }
+}
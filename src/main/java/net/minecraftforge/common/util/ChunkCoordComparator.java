@@ -1,6 +1,8 @@
 package net.minecraftforge.common.util;
 
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.util.MathHelper;
 import net.minecraft.world.ChunkCoordIntPair;
 
 // Sorter to load nearby chunks first
@@ -15,6 +17,24 @@ public class ChunkCoordComparator implements java.util.Comparator<ChunkCoordIntP
         z = (int) entityplayer.posZ >> 4;
     }
 
+    /**
+     * Squared chunk distance from the player to the chunk, scaled by where the player is looking:
+     * chunks straight ahead count as half as far, chunks straight behind as one and a half times as far.
+     */
+    public static double getWeightedDistance(EntityPlayer player, int chunkX, int chunkZ)
+    {
+        double dx = chunkX + 0.5D - player.posX / 16.0D;
+        double dz = chunkZ + 0.5D - player.posZ / 16.0D;
+        double distSq = dx * dx + dz * dz;
+        if (distSq < 1.0D)
+        {
+            return distSq;
+        }
+        float yaw = player.rotationYaw * (float)Math.PI / 180.0F;
+        double facing = (-MathHelper.sin(yaw) * dx + MathHelper.cos(yaw) * dz) / Math.sqrt(distSq);
+        return distSq * (1.0D - 0.5D * facing);
+    }
+
     public int compare(ChunkCoordIntPair a, ChunkCoordIntPair b)
     {
         if (a.equals(b))
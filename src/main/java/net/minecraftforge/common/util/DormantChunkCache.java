@@ -0,0 +1,228 @@
+package net.minecraftforge.common.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.LongHashMap;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+/**
+ * Keeps recently unloaded chunks of one world around, so they can be loaded again without
+ * going through the region files.
+ *
+ * The cache is bounded by a chunk count and by the estimated memory held by the cached chunks,
+ * either of them can be disabled with 0. When a limit is exceeded the chunks farthest away from
+ * every player in the world are dropped first, then the oldest ones.
+ */
+public class DormantChunkCache
+{
+    // Rough retained sizes, close enough to compare chunks and to keep the total in the right ballpark
+    private static final int CHUNK_BYTES = 3 * 1024;
+    private static final int SECTION_BYTES = 12 * 1024 + 64;
+    private static final int TILE_ENTITY_BYTES = 512;
+    private static final int ENTITY_BYTES = 1024;
+    /**
+     * Share of the limits evicted down to in one go, so the candidates are not sorted on every put.
+     */
+    private static final int TRIM_NUMERATOR = 7;
+    private static final int TRIM_DENOMINATOR = 8;
+
+    private final World world;
+    private final int maxChunks;
+    private final long maxBytes;
+    private final LongHashMap entries = new LongHashMap();
+    private final List<Entry> order = new ArrayList<Entry>();
+    private long bytes;
+    private long sequence;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxChunks Maximum number of cached chunks, 0 for no limit
+     * @param maxBytes Maximum estimated size of all cached chunks, 0 for no limit
+     */
+    public DormantChunkCache(World world, int maxChunks, long maxBytes)
+    {
+        this.world = world;
+        this.maxChunks = maxChunks;
+        this.maxBytes = maxBytes;
+    }
+
+    public void put(long coords, Chunk chunk)
+    {
+        Entry old = (Entry)entries.remove(coords);
+        if (old != null)
+        {
+            unlink(old);
+        }
+        Entry entry = new Entry(coords, chunk, sequence++);
+        entries.add(coords, entry);
+        entry.index = order.size();
+        order.add(entry);
+        bytes += entry.bytes;
+
+        if ((maxChunks > 0 && order.size() > maxChunks) || (maxBytes > 0 && bytes > maxBytes))
+        {
+            trim();
+        }
+    }
+
+    /**
+     * Removes the chunk from the cache and returns it, with fresh IDs for its entities.
+     */
+    @SuppressWarnings("unchecked")
+    public Chunk fetch(long coords)
+    {
+        Entry entry = (Entry)entries.remove(coords);
+        if (entry == null)
+        {
+            misses++;
+            return null;
+        }
+        hits++;
+        unlink(entry);
+        if (entry.entities > 0)
+        {
+            for (ClassInheritanceMultiMap eList : entry.chunk.getEntityLists())
+            {
+                if (eList.isEmpty())
+                {
+                    continue;
+                }
+                Iterator<Entity> itr = (Iterator<Entity>)eList.iterator();
+                while (itr.hasNext())
+                {
+                    (itr.next()).resetEntityId();
+                }
+            }
+        }
+        return entry.chunk;
+    }
+
+    public Stats getStats()
+    {
+        return new Stats(order.size(), bytes, hits, misses, evictions);
+    }
+
+    private void unlink(Entry entry)
+    {
+        Entry last = order.remove(order.size() - 1);
+        if (last != entry)
+        {
+            last.index = entry.index;
+            order.set(entry.index, last);
+        }
+        bytes -= entry.bytes;
+    }
+
+    private void trim()
+    {
+        int[][] players = new int[world.playerEntities.size()][];
+        for (int x = 0; x < players.length; x++)
+        {
+            EntityPlayer player = (EntityPlayer)world.playerEntities.get(x);
+            players[x] = new int[] { player.chunkCoordX, player.chunkCoordZ };
+        }
+        for (Entry entry : order)
+        {
+            entry.distance = Long.MAX_VALUE;
+            for (int[] player : players)
+            {
+                long dx = entry.chunk.xPosition - player[0];
+                long dz = entry.chunk.zPosition - player[1];
+                entry.distance = Math.min(entry.distance, dx * dx + dz * dz);
+            }
+        }
+        List<Entry> candidates = new ArrayList<Entry>(order);
+        Collections.sort(candidates, FARTHEST_FIRST);
+
+        int targetChunks = (int)((long)maxChunks * TRIM_NUMERATOR / TRIM_DENOMINATOR);
+        long targetBytes = maxBytes * TRIM_NUMERATOR / TRIM_DENOMINATOR;
+        for (Entry entry : candidates)
+        {
+            if ((maxChunks <= 0 || order.size() <= targetChunks) && (maxBytes <= 0 || bytes <= targetBytes))
+            {
+                break;
+            }
+            entries.remove(entry.key);
+            unlink(entry);
+            evictions++;
+        }
+    }
+
+    private static final Comparator<Entry> FARTHEST_FIRST = new Comparator<Entry>()
+    {
+        @Override
+        public int compare(Entry o1, Entry o2)
+        {
+            if (o1.distance != o2.distance)
+            {
+                return o1.distance > o2.distance ? -1 : 1;
+            }
+            return o1.sequence < o2.sequence ? -1 : (o1.sequence == o2.sequence ? 0 : 1);
+        }
+    };
+
+    private static class Entry
+    {
+        private final long key;
+        private final Chunk chunk;
+        private final long sequence;
+        private final int bytes;
+        private final int entities;
+        private int index;
+        private long distance;
+
+        private Entry(long key, Chunk chunk, long sequence)
+        {
+            this.key = key;
+            this.chunk = chunk;
+            this.sequence = sequence;
+
+            int size = CHUNK_BYTES;
+            for (ExtendedBlockStorage section : chunk.getBlockStorageArray())
+            {
+                if (section != null)
+                {
+                    size += SECTION_BYTES;
+                }
+            }
+            size += chunk.getTileEntityMap().size() * TILE_ENTITY_BYTES;
+            int count = 0;
+            for (ClassInheritanceMultiMap eList : chunk.getEntityLists())
+            {
+                count += eList.size();
+            }
+            size += count * ENTITY_BYTES;
+            this.bytes = size;
+            this.entities = count;
+        }
+    }
+
+    public static class Stats
+    {
+        public final int chunks;
+        public final long bytes;
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+
+        private Stats(int chunks, long bytes, long hits, long misses, long evictions)
+        {
+            this.chunks = chunks;
+            this.bytes = bytes;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package net.minecraftforge.common.util;
+
+import java.util.Arrays;
+
+import net.minecraft.util.BlockPos;
+
+/**
+ * Neighbor notifications of one world tick, merged by position. Positions are kept in
+ * the order they were first added, the open addressing table only maps a position to
+ * its entry so adding a known position doesn't allocate.
+ */
+public class NeighborNotifyBatch
+{
+    private long[] positions = new long[64];
+    private int[] sides = new int[64];
+    private int size = 0;
+    // Entry index + 1 for each slot, 0 for an empty slot
+    private int[] table = new int[128];
+
+    public void add(BlockPos pos, int notifiedSides)
+    {
+        long key = pos.toLong();
+        int slot = find(key);
+        if (table[slot] != 0)
+        {
+            sides[table[slot] - 1] |= notifiedSides;
+            return;
+        }
+
+        if (size == positions.length)
+        {
+            positions = Arrays.copyOf(positions, size * 2);
+            sides = Arrays.copyOf(sides, size * 2);
+        }
+        positions[size] = key;
+        sides[size] = notifiedSides;
+        table[slot] = ++size;
+
+        if (size * 2 > table.length)
+        {
+            rehash(table.length * 2);
+        }
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public long[] getPositions()
+    {
+        return Arrays.copyOf(positions, size);
+    }
+
+    public int[] getNotifiedSides()
+    {
+        return Arrays.copyOf(sides, size);
+    }
+
+    /**
+     * Empties the batch, shrinking it back if a busy tick grew it a lot.
+     */
+    public void clear()
+    {
+        if (positions.length > 4096)
+        {
+            positions = new long[64];
+            sides = new int[64];
+            table = new int[128];
+        }
+        else
+        {
+            Arrays.fill(table, 0);
+        }
+        size = 0;
+    }
+
+    private int find(long key)
+    {
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        while (table[slot] != 0 && positions[table[slot] - 1] != key)
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int length)
+    {
+        table = new int[length];
+        for (int x = 0; x < size; x++)
+        {
+            table[find(positions[x])] = x + 1;
+        }
+    }
+
+    private static int hash(long key)
+    {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int)(key ^ (key >>> 32));
+    }
+}
@@ -6,6 +6,7 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
@@ -40,6 +41,7 @@ import net.minecraftforge.common.ForgeHooks;
 import net.minecraftforge.common.IExtendedEntityProperties;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.util.BlockSnapshot;
+import net.minecraftforge.common.util.NeighborNotifyBatch;
 import net.minecraftforge.event.brewing.PotionBrewEvent;
 import net.minecraftforge.event.entity.EntityEvent;
 import net.minecraftforge.event.entity.EntityMountEvent;
@@ -72,13 +74,17 @@ import net.minecraftforge.event.world.BlockEvent.NeighborNotifyEvent;
 import net.minecraftforge.event.world.BlockEvent.MultiPlaceEvent;
 import net.minecraftforge.event.world.BlockEvent.PlaceEvent;
 import net.minecraftforge.event.world.ExplosionEvent;
+import net.minecraftforge.event.world.NeighborNotifyBatchEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.ObfuscationReflectionHelper;
 import net.minecraftforge.fml.common.eventhandler.Event;
 import net.minecraftforge.fml.common.eventhandler.Event.Result;
 
+import com.google.common.collect.MapMaker;
+
 public class ForgeEventFactory
 {
+    private static final Map<World, NeighborNotifyBatch> neighborNotifyBatches = new MapMaker().weakKeys().makeMap();
 
     public static MultiPlaceEvent onPlayerMultiBlockPlace(EntityPlayer player, List<BlockSnapshot> blockSnapshots, EnumFacing direction)
     {
@@ -104,6 +110,45 @@ public class ForgeEventFactory
         return event;
     }
 
+    /**
+     * Posts a NeighborNotifyEvent only if something listens for it, and adds the notification to the
+     * NeighborNotifyBatchEvent of this tick if it isn't canceled.
+     *
+     * @param notifiedSides Mask of the notified sides, see {@link NeighborNotifyEvent#sideMask(EnumFacing)}
+     * @return true if the notification was canceled
+     */
+    public static boolean fireNeighborNotify(World world, BlockPos pos, int notifiedSides)
+    {
+        if (MinecraftForge.EVENT_BUS.hasListeners(NeighborNotifyEvent.class))
+        {
+            NeighborNotifyEvent event = new NeighborNotifyEvent(world, pos, world.getBlockState(pos), notifiedSides);
+            if (MinecraftForge.EVENT_BUS.post(event)) return true;
+        }
+        if (!world.isRemote && MinecraftForge.EVENT_BUS.hasListeners(NeighborNotifyBatchEvent.class))
+        {
+            NeighborNotifyBatch batch = neighborNotifyBatches.get(world);
+            if (batch == null)
+            {
+                batch = new NeighborNotifyBatch();
+                neighborNotifyBatches.put(world, batch);
+            }
+            batch.add(pos, notifiedSides);
+        }
+        return false;
+    }
+
+    /**
+     * Called at the end of each server world tick, posts the NeighborNotifyBatchEvent collected during the tick.
+     */
+    public static void flushNeighborNotifyBatch(World world)
+    {
+        NeighborNotifyBatch batch = neighborNotifyBatches.get(world);
+        if (batch == null || batch.isEmpty()) return;
+        NeighborNotifyBatchEvent event = new NeighborNotifyBatchEvent(world, batch.getPositions(), batch.getNotifiedSides());
+        batch.clear();
+        MinecraftForge.EVENT_BUS.post(event);
+    }
+
     public static boolean doPlayerHarvestCheck(EntityPlayer player, Block block, boolean success)
     {
         PlayerEvent.HarvestCheck event = new PlayerEvent.HarvestCheck(player, block, success);
@@ -184,6 +229,7 @@ public class ForgeEventFactory
 
     public static float fireBlockHarvesting(List<ItemStack> drops, World world, BlockPos pos, IBlockState state, int fortune, float dropChance, boolean silkTouch, EntityPlayer player)
     {
+        if (!MinecraftForge.EVENT_BUS.hasListeners(BlockEvent.HarvestDropsEvent.class)) return dropChance;
         BlockEvent.HarvestDropsEvent event = new BlockEvent.HarvestDropsEvent(world, pos, state, fortune, dropChance, drops, player, silkTouch);
         MinecraftForge.EVENT_BUS.post(event);
         return event.dropChance;
@@ -313,6 +359,7 @@ public class ForgeEventFactory
 
     public static boolean canEntityUpdate(Entity entity)
     {
+        if (!MinecraftForge.EVENT_BUS.hasListeners(EntityEvent.CanUpdate.class)) return false;
         EntityEvent.CanUpdate event = new EntityEvent.CanUpdate(entity);
         MinecraftForge.EVENT_BUS.post(event);
         return event.canUpdate;
@@ -346,6 +393,7 @@ public class ForgeEventFactory
 
     public static int onItemPickup(EntityItem entityItem, EntityPlayer entityIn, ItemStack itemstack)
     {
+        if (!MinecraftForge.EVENT_BUS.hasListeners(EntityItemPickupEvent.class)) return 0;
         Event event = new EntityItemPickupEvent(entityIn, entityItem);
         if (MinecraftForge.EVENT_BUS.post(event)) return -1;
         return event.getResult() == Result.ALLOW ? 1 : 0;
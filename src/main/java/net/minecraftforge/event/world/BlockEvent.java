@@ -188,9 +188,23 @@ public class BlockEvent extends Event
     @Cancelable
     public static class NeighborNotifyEvent extends BlockEvent 
     {
-        private final EnumSet<EnumFacing> notifiedSides;
-        
+        /**
+         * Mask of all six sides, see {@link #sideMask(EnumFacing)}.
+         */
+        public static final int ALL_SIDES = (1 << EnumFacing.values().length) - 1;
+
+        private final int notifiedSides;
+        private EnumSet<EnumFacing> notifiedSideSet;
+
         public NeighborNotifyEvent(World world, BlockPos pos, IBlockState state, EnumSet<EnumFacing> notifiedSides)
+        {
+            this(world, pos, state, sideMask(notifiedSides));
+        }
+
+        /**
+         * @param notifiedSides Mask of the notified sides, built with {@link #sideMask(EnumFacing)}
+         */
+        public NeighborNotifyEvent(World world, BlockPos pos, IBlockState state, int notifiedSides)
         {
             super(world, pos, state);
             this.notifiedSides = notifiedSides;
@@ -202,8 +216,46 @@ public class BlockEvent extends Event
          * @return list of notified directions
          */
         public EnumSet<EnumFacing> getNotifiedSides() 
+        {
+            if (notifiedSideSet == null)
+            {
+                notifiedSideSet = EnumSet.noneOf(EnumFacing.class);
+                for (EnumFacing side : EnumFacing.values())
+                {
+                    if (isSideNotified(side)) notifiedSideSet.add(side);
+                }
+            }
+            return notifiedSideSet;
+        }
+
+        /**
+         * Same as {@link #getNotifiedSides()}, without building a set.
+         *
+         * @return mask of notified directions, see {@link #sideMask(EnumFacing)}
+         */
+        public int getNotifiedSideMask()
         {
             return notifiedSides;
         }
+
+        public boolean isSideNotified(EnumFacing side)
+        {
+            return (notifiedSides & sideMask(side)) != 0;
+        }
+
+        public static int sideMask(EnumFacing side)
+        {
+            return 1 << side.ordinal();
+        }
+
+        public static int sideMask(Iterable<EnumFacing> sides)
+        {
+            int mask = 0;
+            for (EnumFacing side : sides)
+            {
+                mask |= sideMask(side);
+            }
+            return mask;
+        }
     }
 }
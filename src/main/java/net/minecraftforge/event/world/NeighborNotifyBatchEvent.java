@@ -0,0 +1,64 @@
+package net.minecraftforge.event.world;
+
+import net.minecraft.util.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.BlockEvent.NeighborNotifyEvent;
+import net.minecraftforge.fml.common.eventhandler.Cancelable;
+import net.minecraftforge.fml.common.eventhandler.Event;
+
+/**
+ * NeighborNotifyBatchEvent is fired at the end of a server world tick with every
+ * neighbor notification of that tick that was not canceled, one entry per position.<br>
+ * Notifications of the same position are merged, the notified sides are the union
+ * of the sides of each notification. Entries are in the order their position was
+ * first notified in.<br>
+ * <br>
+ * {@link #world} contains the World of the notifications.<br>
+ * <br>
+ * Listening to this instead of {@link NeighborNotifyEvent} keeps busy redstone from
+ * posting an event for every single update. Nothing is collected while no one listens.
+ * This is not a {@link WorldEvent}, so listeners of WorldEvent don't turn the collection on.<br>
+ * <br>
+ * This event is not {@link Cancelable}.<br>
+ * <br>
+ * This event is fired on the {@link net.minecraftforge.common.MinecraftForge#EVENT_BUS}.<br>
+ **/
+public class NeighborNotifyBatchEvent extends Event
+{
+    public final World world;
+    private final long[] positions;
+    private final int[] notifiedSides;
+
+    public NeighborNotifyBatchEvent(World world, long[] positions, int[] notifiedSides)
+    {
+        this.world = world;
+        this.positions = positions;
+        this.notifiedSides = notifiedSides;
+    }
+
+    public int getCount()
+    {
+        return positions.length;
+    }
+
+    public BlockPos getPos(int index)
+    {
+        return BlockPos.fromLong(positions[index]);
+    }
+
+    /**
+     * @return the position as returned by {@link BlockPos#toLong()}
+     */
+    public long getPosLong(int index)
+    {
+        return positions[index];
+    }
+
+    /**
+     * @return mask of notified directions, see {@link NeighborNotifyEvent#sideMask(net.minecraft.util.EnumFacing)}
+     */
+    public int getNotifiedSideMask(int index)
+    {
+        return notifiedSides[index];
+    }
+}
@@ -55,6 +55,9 @@ import net.minecraftforge.fml.common.gameevent.PlayerEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
+import net.minecraftforge.fml.common.network.PlayerTargetIndex;
+import net.minecraftforge.fml.common.network.handshake.NetworkDispatcher;
+import net.minecraftforge.fml.common.network.internal.PayloadBatch;
 import net.minecraftforge.fml.relauncher.CoreModManager;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.server.FMLServerHandler;
@@ -286,6 +289,7 @@ public class FMLCommonHandler
     public void onPostServerTick()
     {
         bus().post(new TickEvent.ServerTickEvent(Phase.END));
+        NetworkDispatcher.flushBatches();
     }
 
     /**
@@ -298,6 +302,7 @@ public class FMLCommonHandler
 
     public void onPreServerTick()
     {
+        PlayerTargetIndex.invalidate();
         bus().post(new TickEvent.ServerTickEvent(Phase.START));
     }
 
@@ -522,6 +527,7 @@ public class FMLCommonHandler
         sidedDelegate.serverStopped();
         MinecraftServer server = getMinecraftServerInstance();
         Loader.instance().serverStopped();
+        PayloadBatch.logStats();
         // FORCE the internal server to stop: hello optifine workaround!
         if (server!=null) ObfuscationReflectionHelper.setPrivateValue(MinecraftServer.class, server, false, "field_71316"+"_v", "u", "serverStopped");
 
@@ -583,21 +589,25 @@ public class FMLCommonHandler
 
     public void firePlayerChangedDimensionEvent(EntityPlayer player, int fromDim, int toDim)
     {
+        PlayerTargetIndex.invalidate();
         bus().post(new PlayerEvent.PlayerChangedDimensionEvent(player, fromDim, toDim));
     }
 
     public void firePlayerLoggedIn(EntityPlayer player)
     {
+        PlayerTargetIndex.invalidate();
         bus().post(new PlayerEvent.PlayerLoggedInEvent(player));
     }
 
     public void firePlayerLoggedOut(EntityPlayer player)
     {
+        PlayerTargetIndex.invalidate();
         bus().post(new PlayerEvent.PlayerLoggedOutEvent(player));
     }
 
     public void firePlayerRespawnEvent(EntityPlayer player)
     {
+        PlayerTargetIndex.invalidate();
         bus().post(new PlayerEvent.PlayerRespawnEvent(player));
     }
 
@@ -51,6 +51,7 @@ import net.minecraftforge.fml.common.versioning.ArtifactVersion;
 import net.minecraftforge.fml.common.versioning.VersionParser;
 import net.minecraftforge.fml.relauncher.ModListHelper;
 import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.TransformedClassCache;
 
 import org.apache.logging.log4j.Level;
 
@@ -341,6 +342,10 @@ public class Loader
             mods.add(new InjectedModContainer(mc,mc.getSource()));
         }
         ModDiscoverer discoverer = new ModDiscoverer();
+        if (!Boolean.getBoolean("fml.disableScanCache"))
+        {
+            discoverer.setScanCache(new File(canonicalConfigDir, "fml_scancache.bin"));
+        }
         FMLLog.fine("Attempting to load mods contained in the minecraft jar file and associated classes");
         discoverer.findClasspathMods(modClassLoader);
         FMLLog.fine("Minecraft jar mods loaded successfully");
@@ -548,6 +553,7 @@ public class Loader
         ObjectHolderRegistry.INSTANCE.findObjectHolders(discoverer.getASMTable());
         ItemStackHolderInjector.INSTANCE.findHolders(discoverer.getASMTable());
         modController.distributeStateMessage(LoaderState.PREINITIALIZATION, discoverer.getASMTable(), canonicalConfigDir);
+        discoverer.getASMTable().logStatistics();
         ObjectHolderRegistry.INSTANCE.applyObjectHolders();
         ItemStackHolderInjector.INSTANCE.inject();
         modController.transition(LoaderState.INITIALIZATION, false);
@@ -739,6 +745,10 @@ public class Loader
         modController.distributeStateMessage(LoaderState.AVAILABLE);
         GameData.freezeData();
         FMLLog.info("Forge Mod Loader has successfully loaded %d mod%s", mods.size(), mods.size() == 1 ? "" : "s");
+        if (TransformedClassCache.getInstance() != null)
+        {
+            FMLLog.info("Transformed class cache: %s", TransformedClassCache.getInstance().getStatistics());
+        }
         progressBar.step("Completing Minecraft initialization");
     }
 
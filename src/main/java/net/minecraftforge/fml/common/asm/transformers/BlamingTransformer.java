@@ -19,10 +19,11 @@ import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
 
 import com.google.common.collect.ImmutableSet;
 
-public class BlamingTransformer implements IClassTransformer
+public class BlamingTransformer implements IClassTransformer, IClassNodeTransformer
 {
     private static final Map<String, String> classMap = new HashMap<String, String>();
     private static final Set<String> naughtyMods = new HashSet<String>();
@@ -40,6 +41,19 @@ public class BlamingTransformer implements IClassTransformer
         return bytes;
     }
 
+    @Override
+    public boolean transform(String name, String transformedName, ClassNode classNode)
+    {
+        checkVersion(classNode.version, classNode.name);
+        return false;
+    }
+
+    @Override
+    public int getWriterFlags()
+    {
+        return 0;
+    }
+
     public static void blame(String modId, String cls)
     {
         naughtyClasses.add(cls);
@@ -57,12 +71,17 @@ public class BlamingTransformer implements IClassTransformer
         @Override
         public void visit(int version, int access, String name, String signature, String superName, String[] interfaces)
         {
-            if( (version == Opcodes.V1_8 && !SystemUtils.isJavaVersionAtLeast(JavaVersion.JAVA_1_8)) ||
-                (version == Opcodes.V1_7 && !SystemUtils.isJavaVersionAtLeast(JavaVersion.JAVA_1_7)) )
-            {
-                if(classMap.containsKey(name)) blame(classMap.get(name), name);
-                else orphanNaughtyClasses.add(name);
-            }
+            checkVersion(version, name);
+        }
+    }
+
+    private static void checkVersion(int version, String name)
+    {
+        if( (version == Opcodes.V1_8 && !SystemUtils.isJavaVersionAtLeast(JavaVersion.JAVA_1_8)) ||
+            (version == Opcodes.V1_7 && !SystemUtils.isJavaVersionAtLeast(JavaVersion.JAVA_1_7)) )
+        {
+            if(classMap.containsKey(name)) blame(classMap.get(name), name);
+            else orphanNaughtyClasses.add(name);
         }
     }
 
@@ -0,0 +1,62 @@
+/*
+ * Forge Mod Loader
+ * Copyright (c) 2012-2013 cpw.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * Contributors:
+ *     cpw - implementation
+ */
+
+package net.minecraftforge.fml.common.asm.transformers;
+
+import net.minecraft.launchwrapper.IClassTransformer;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
+
+/**
+ * Runs a number of {@link IClassNodeTransformer}s over one parsed {@link ClassNode}. The class is only
+ * written again if one of them changed it, with the writer flags of all that did. To the class loader the
+ * chain is one ordinary transformer, the ones before and after it keep working on bytes.
+ */
+public class ClassNodeTransformerChain implements IClassTransformer
+{
+    private final IClassNodeTransformer[] transformers;
+
+    public ClassNodeTransformerChain(IClassNodeTransformer... transformers)
+    {
+        this.transformers = transformers;
+    }
+
+    @Override
+    public byte[] transform(String name, String transformedName, byte[] bytes)
+    {
+        if (bytes == null) { return null; }
+
+        ClassNode classNode = new ClassNode();
+        new ClassReader(bytes).accept(classNode, 0);
+
+        boolean changed = false;
+        int flags = 0;
+        for (IClassNodeTransformer transformer : transformers)
+        {
+            if (transformer.transform(name, transformedName, classNode))
+            {
+                changed = true;
+                flags |= transformer.getWriterFlags();
+            }
+        }
+        if (!changed)
+        {
+            return bytes;
+        }
+
+        ClassWriter writer = new ClassWriter(flags);
+        classNode.accept(writer);
+        return writer.toByteArray();
+    }
+}
@@ -15,7 +15,7 @@ import org.objectweb.asm.tree.MethodNode;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
 
-public class EventSubscriberTransformer implements IClassTransformer
+public class EventSubscriberTransformer implements IClassTransformer, IClassNodeTransformer
 {
     @Override
     public byte[] transform(String name, String transformedName, byte[] basicClass)
@@ -25,6 +25,19 @@ public class EventSubscriberTransformer implements IClassTransformer
         ClassNode classNode = new ClassNode();
         new ClassReader(basicClass).accept(classNode, 0);
 
+        if (transform(name, transformedName, classNode))
+        {
+            ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+            classNode.accept(writer);
+            return writer.toByteArray();
+        }
+
+        return basicClass;
+    }
+
+    @Override
+    public boolean transform(String name, String transformedName, ClassNode classNode)
+    {
         boolean isSubscriber = false;
 
         for (MethodNode methodNode : classNode.methods)
@@ -47,13 +60,15 @@ public class EventSubscriberTransformer implements IClassTransformer
         if (isSubscriber)
         {
             classNode.access = toPublic(classNode.access);
-
-            ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
-            classNode.accept(writer);
-            return writer.toByteArray();
         }
 
-        return basicClass;
+        return isSubscriber;
+    }
+
+    @Override
+    public int getWriterFlags()
+    {
+        return ClassWriter.COMPUTE_MAXS;
     }
 
     private static int toPublic(int access)
@@ -44,7 +44,7 @@ import org.objectweb.asm.tree.MethodNode;
 import org.objectweb.asm.tree.TypeInsnNode;
 import org.objectweb.asm.tree.VarInsnNode;
 
-public class EventSubscriptionTransformer implements IClassTransformer
+public class EventSubscriptionTransformer implements IClassTransformer, IClassNodeTransformer
 {
     public EventSubscriptionTransformer()
     {
@@ -61,15 +61,27 @@ public class EventSubscriptionTransformer implements IClassTransformer
         ClassNode classNode = new ClassNode();
         cr.accept(classNode, 0);
 
+        if (transform(name, transformedName, classNode))
+        {
+            ClassWriter cw = new ClassWriter(COMPUTE_FRAMES);
+            classNode.accept(cw);
+            return cw.toByteArray();
+        }
+
+        return bytes;
+    }
+
+    @Override
+    public boolean transform(String name, String transformedName, ClassNode classNode)
+    {
+        if (name.equals("net.minecraftforge.fml.common.eventhandler.Event") || name.startsWith("net.minecraft.") || name.indexOf('.') == -1)
+        {
+            return false;
+        }
+
         try
         {
-            if (buildEvents(classNode))
-            {
-                ClassWriter cw = new ClassWriter(COMPUTE_FRAMES);
-                classNode.accept(cw);
-                return cw.toByteArray();
-            }
-            return bytes;
+            return buildEvents(classNode);
         }
         catch (ClassNotFoundException ex)
         {
@@ -80,7 +92,13 @@ public class EventSubscriptionTransformer implements IClassTransformer
             e.printStackTrace();
         }
 
-        return bytes;
+        return false;
+    }
+
+    @Override
+    public int getWriterFlags()
+    {
+        return COMPUTE_FRAMES;
     }
 
     private boolean buildEvents(ClassNode classNode) throws Exception
@@ -119,6 +137,12 @@ public class EventSubscriptionTransformer implements IClassTransformer
             if (method.name.equals("<init>") && method.desc.equals(voidDesc)) hasDefaultCtr = true;
         }
 
+        // Checked before anything is added, as the node may be shared with other transformers
+        if (hasSetup && !hasGetListenerList)
+        {
+            throw new RuntimeException("Event class defines setup() but does not define getListenerList! " + classNode.name);
+        }
+
         if (classNode.visibleAnnotations != null)
         {
             for (AnnotationNode node : classNode.visibleAnnotations)
@@ -156,10 +180,7 @@ public class EventSubscriptionTransformer implements IClassTransformer
 
         if (hasSetup)
         {
-            if (!hasGetListenerList)
-                throw new RuntimeException("Event class defines setup() but does not define getListenerList! " + classNode.name);
-            else
-                return edited;
+            return edited;
         }
 
         Type tSuper = Type.getType(classNode.superName);
@@ -0,0 +1,25 @@
+/*
+ * Forge Mod Loader
+ * Copyright (c) 2012-2013 cpw.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * Contributors:
+ *     cpw - implementation
+ */
+
+package net.minecraftforge.fml.common.asm.transformers;
+
+/**
+ * The transformers of the FML core plugin as one {@link ClassNodeTransformerChain}. Registered in their
+ * place if the fml.sharedClassNode system property is true.
+ */
+public class FMLClassNodeTransformer extends ClassNodeTransformerChain
+{
+    public FMLClassNodeTransformer()
+    {
+        super(new BlamingTransformer(), new SideTransformer(), new EventSubscriptionTransformer(), new EventSubscriberTransformer());
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Forge Mod Loader
+ * Copyright (c) 2012-2013 cpw.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * Contributors:
+ *     cpw - implementation
+ */
+
+package net.minecraftforge.fml.common.asm.transformers;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
+
+/**
+ * A transformer that works on a parsed {@link ClassNode} instead of the class bytes. All the transformers
+ * of a {@link ClassNodeTransformerChain} share one node, so the class is read and written only once for
+ * all of them.
+ */
+public interface IClassNodeTransformer
+{
+    /**
+     * @return true if the node was changed
+     */
+    boolean transform(String name, String transformedName, ClassNode classNode);
+
+    /**
+     * @return the {@link ClassWriter} flags the changes of this transformer need
+     */
+    int getWriterFlags();
+}
@@ -27,7 +27,7 @@ import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.FieldNode;
 import org.objectweb.asm.tree.MethodNode;
 
-public class SideTransformer implements IClassTransformer
+public class SideTransformer implements IClassTransformer, IClassNodeTransformer
 {
     private static String SIDE = FMLLaunchHandler.side().name();
     private static final boolean DEBUG = false;
@@ -40,6 +40,17 @@ public class SideTransformer implements IClassTransformer
         ClassReader classReader = new ClassReader(bytes);
         classReader.accept(classNode, 0);
 
+        transform(name, transformedName, classNode);
+
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classNode.accept(writer);
+        return writer.toByteArray();
+    }
+
+    @Override
+    public boolean transform(String name, String transformedName, ClassNode classNode)
+    {
+        boolean changed = false;
         if (remove((List<AnnotationNode>)classNode.visibleAnnotations, SIDE))
         {
             if (DEBUG)
@@ -60,6 +71,7 @@ public class SideTransformer implements IClassTransformer
                     System.out.println(String.format("Removing Field: %s.%s", classNode.name, field.name));
                 }
                 fields.remove();
+                changed = true;
             }
         }
         Iterator<MethodNode> methods = classNode.methods.iterator();
@@ -73,12 +85,16 @@ public class SideTransformer implements IClassTransformer
                     System.out.println(String.format("Removing Method: %s.%s%s", classNode.name, method.name, method.desc));
                 }
                 methods.remove();
+                changed = true;
             }
         }
+        return changed;
+    }
 
-        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
-        classNode.accept(writer);
-        return writer.toByteArray();
+    @Override
+    public int getWriterFlags()
+    {
+        return ClassWriter.COMPUTE_MAXS;
     }
 
     private boolean remove(List<AnnotationNode> anns, String side)
@@ -0,0 +1,307 @@
+/*
+ * Forge Mod Loader
+ * Copyright (c) 2012-2013 cpw.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * Contributors:
+ *     cpw - implementation
+ */
+
+package net.minecraftforge.fml.common.discovery;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.fml.common.discovery.asm.ASMModParser;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.Level;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * What {@link JarDiscoverer} found in each mod jar during the last launch, so unchanged jars don't have to
+ * have every class read again.
+ *
+ * An entry is only used if the size, the modification time and the content hash of the jar all still match.
+ * The content hash covers the name, CRC and size of every entry in the central directory of the jar, so
+ * checking it doesn't read the classes. The file is rewritten after every discovery with only the jars
+ * that were seen, so entries for removed or changed jars go away. Any problem reading it is logged and
+ * the cache starts empty, discovery then just scans everything as before.
+ */
+public class ASMDataCache
+{
+    private static final int MAGIC = 0x464D4C43; // FMLC
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final Map<String, Entry> loaded;
+    private final Map<String, Entry> used = Maps.newConcurrentMap();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private final AtomicLong savedNanos = new AtomicLong();
+
+    private ASMDataCache(File file, Map<String, Entry> loaded)
+    {
+        this.file = file;
+        this.loaded = loaded;
+    }
+
+    public static ASMDataCache load(File file)
+    {
+        Map<String, Entry> loaded = Maps.newHashMap();
+        if (file.isFile())
+        {
+            DataInputStream in = null;
+            try
+            {
+                in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+                if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                {
+                    FMLLog.fine("The mod scan cache %s is from another version, it will be rebuilt", file.getName());
+                }
+                else
+                {
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++)
+                    {
+                        String path = in.readUTF();
+                        loaded.put(path, new Entry(in));
+                    }
+                }
+            }
+            catch (IOException e)
+            {
+                FMLLog.log(Level.WARN, e, "The mod scan cache %s could not be read, all mods will be scanned", file.getName());
+                loaded.clear();
+            }
+            finally
+            {
+                IOUtils.closeQuietly(in);
+            }
+        }
+        return new ASMDataCache(file, loaded);
+    }
+
+    /**
+     * Hashes the central directory of the jar.
+     */
+    public static byte[] hash(JarFile jar)
+    {
+        Hasher hasher = Hashing.sha1().newHasher();
+        for (Enumeration<JarEntry> entries = jar.entries(); entries.hasMoreElements();)
+        {
+            JarEntry entry = entries.nextElement();
+            hasher.putString(entry.getName(), Charsets.UTF_8);
+            hasher.putLong(entry.getCrc());
+            hasher.putLong(entry.getSize());
+        }
+        return hasher.hash().asBytes();
+    }
+
+    /**
+     * @return the entry of the jar if it hasn't changed since it was stored, null otherwise
+     */
+    public Entry get(File jar, byte[] hash)
+    {
+        Entry entry = loaded.get(key(jar));
+        if (entry == null || entry.size != jar.length() || entry.modified != jar.lastModified() || !Arrays.equals(entry.hash, hash))
+        {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        savedNanos.addAndGet(entry.scanNanos);
+        used.put(key(jar), entry);
+        return entry;
+    }
+
+    /**
+     * Stores what a scan of the jar found.
+     *
+     * @param classes The class entries of the jar, in the order they were found
+     * @param parsers The parser of each class
+     * @param scanNanos How long reading the classes took
+     */
+    public void put(File jar, byte[] hash, byte[] modInfo, List<String> classes, List<ASMModParser> parsers, long scanNanos)
+    {
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(classes.size());
+            for (int i = 0; i < classes.size(); i++)
+            {
+                out.writeUTF(classes.get(i));
+                parsers.get(i).write(out);
+            }
+            out.close();
+            used.put(key(jar), new Entry(jar.length(), jar.lastModified(), hash, modInfo, bytes.toByteArray(), scanNanos));
+        }
+        catch (Exception e)
+        {
+            FMLLog.fine("The scan of %s can't be cached, it will be scanned on every launch: %s", jar.getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the entries of the jars seen since the cache was loaded and logs how much time it saved.
+     */
+    public void save()
+    {
+        if (hits.get() > 0)
+        {
+            FMLLog.info("The mod scan cache was used for %d of %d jars, saving about %d ms", hits.get(), hits.get() + misses.get(), savedNanos.get() / 1000000);
+        }
+
+        // Written next to the file and renamed, so an interrupted save doesn't leave a broken cache behind
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        DataOutputStream out = null;
+        try
+        {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(used.size());
+            for (Map.Entry<String, Entry> e : used.entrySet())
+            {
+                out.writeUTF(e.getKey());
+                e.getValue().write(out);
+            }
+            out.close();
+            out = null;
+            if (file.exists() && !file.delete() || !temp.renameTo(file))
+            {
+                throw new IOException("Unable to replace " + file.getName());
+            }
+        }
+        catch (IOException e)
+        {
+            FMLLog.log(Level.WARN, e, "The mod scan cache %s could not be written", file.getName());
+            temp.delete();
+        }
+        finally
+        {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    private static String key(File jar)
+    {
+        try
+        {
+            return jar.getCanonicalPath();
+        }
+        catch (IOException e)
+        {
+            return jar.getAbsolutePath();
+        }
+    }
+
+    public static class Entry
+    {
+        private final long size;
+        private final long modified;
+        private final byte[] hash;
+        private final byte[] modInfo;
+        private final byte[] classes;
+        private final long scanNanos;
+
+        private Entry(long size, long modified, byte[] hash, byte[] modInfo, byte[] classes, long scanNanos)
+        {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+            this.modInfo = modInfo;
+            this.classes = classes;
+            this.scanNanos = scanNanos;
+        }
+
+        private Entry(DataInputStream in) throws IOException
+        {
+            size = in.readLong();
+            modified = in.readLong();
+            hash = new byte[in.readUnsignedShort()];
+            in.readFully(hash);
+            int infoLength = in.readInt();
+            if (infoLength >= 0)
+            {
+                modInfo = new byte[infoLength];
+                in.readFully(modInfo);
+            }
+            else
+            {
+                modInfo = null;
+            }
+            classes = new byte[in.readInt()];
+            in.readFully(classes);
+            scanNanos = in.readLong();
+        }
+
+        private void write(DataOutputStream out) throws IOException
+        {
+            out.writeLong(size);
+            out.writeLong(modified);
+            out.writeShort(hash.length);
+            out.write(hash);
+            out.writeInt(modInfo == null ? -1 : modInfo.length);
+            if (modInfo != null)
+            {
+                out.write(modInfo);
+            }
+            out.writeInt(classes.length);
+            out.write(classes);
+            out.writeLong(scanNanos);
+        }
+
+        /**
+         * @return the contents of the mcmod.info file of the jar, null if it has none
+         */
+        public byte[] getModInfo()
+        {
+            return modInfo;
+        }
+
+        /**
+         * Reads the stored classes back, every call returns new parsers.
+         *
+         * @param classNames Filled with the class entries, in the order of the parsers
+         */
+        public List<ASMModParser> readClasses(List<String> classNames) throws IOException
+        {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(classes));
+            int count = in.readInt();
+            List<ASMModParser> parsers = Lists.newArrayListWithCapacity(count);
+            for (int i = 0; i < count; i++)
+            {
+                classNames.add(in.readUTF());
+                parsers.add(ASMModParser.read(in));
+            }
+            return parsers;
+        }
+    }
+}
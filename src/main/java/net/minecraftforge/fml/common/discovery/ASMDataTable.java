@@ -12,20 +12,25 @@
 
 package net.minecraftforge.fml.common.discovery;
 
+import java.io.File;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
+import net.minecraftforge.fml.common.FMLLog;
 import net.minecraftforge.fml.common.ModContainer;
 
-import com.google.common.base.Predicate;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
+import com.google.common.collect.Maps;
 import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Sets;
 
 public class ASMDataTable
 {
@@ -80,53 +85,137 @@ public class ASMDataTable
         }
     }
 
-    private static class ModContainerPredicate implements Predicate<ASMData>
+    private static final Interner<String> strings = Interners.newWeakInterner();
+
+    private SetMultimap<String, ASMData> globalAnnotationData = HashMultimap.create();
+    private volatile Index index;
+
+    private List<ModContainer> containers = Lists.newArrayList();
+    private SetMultimap<String,ModCandidate> packageMap = HashMultimap.create();
+
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong queryNanos = new AtomicLong();
+
+    /**
+     * Everything in the table grouped by annotation, and by the file of the candidate it was found in, so
+     * queries don't have to go through all of it.
+     */
+    private static class Index
     {
-        private ModContainer container;
-        public ModContainerPredicate(ModContainer container)
+        private final ImmutableSetMultimap<String, ASMData> byAnnotation;
+        private final Map<File, ImmutableSetMultimap<String, ASMData>> bySource;
+        private final Set<ModContainer> containers;
+        private final int names;
+        private final long nameChars;
+        private final long buildNanos;
+
+        private Index(SetMultimap<String, ASMData> all, List<ModContainer> containers)
         {
-            this.container = container;
+            long start = System.nanoTime();
+            this.containers = ImmutableSet.copyOf(containers);
+            byAnnotation = ImmutableSetMultimap.copyOf(all);
+            Map<File, ImmutableSetMultimap.Builder<String, ASMData>> builders = Maps.newHashMap();
+            Set<String> seen = Sets.newIdentityHashSet();
+            long chars = 0;
+            for (Map.Entry<String, ASMData> entry : byAnnotation.entries())
+            {
+                ASMData data = entry.getValue();
+                File source = data.candidate.getModContainer();
+                ImmutableSetMultimap.Builder<String, ASMData> builder = builders.get(source);
+                if (builder == null)
+                {
+                    builder = ImmutableSetMultimap.builder();
+                    builders.put(source, builder);
+                }
+                builder.put(entry.getKey(), data);
+                for (String str : new String[] { data.annotationName, data.className, data.objectName })
+                {
+                    if (str != null && seen.add(str)) chars += str.length();
+                }
+            }
+            ImmutableMap.Builder<File, ImmutableSetMultimap<String, ASMData>> bySource = ImmutableMap.builder();
+            for (Map.Entry<File, ImmutableSetMultimap.Builder<String, ASMData>> entry : builders.entrySet())
+            {
+                bySource.put(entry.getKey(), entry.getValue().build());
+            }
+            this.bySource = bySource.build();
+            this.names = seen.size();
+            this.nameChars = chars;
+            this.buildNanos = System.nanoTime() - start;
         }
-        @Override
-        public boolean apply(ASMData data)
+    }
+
+    private Index index()
+    {
+        Index ret = index;
+        if (ret == null)
         {
-            return container.getSource().equals(data.candidate.getModContainer());
+            synchronized (this)
+            {
+                ret = index;
+                if (ret == null)
+                {
+                    ret = index = new Index(globalAnnotationData, containers);
+                }
+            }
         }
+        return ret;
     }
-    private SetMultimap<String, ASMData> globalAnnotationData = HashMultimap.create();
-    private Map<ModContainer, SetMultimap<String,ASMData>> containerAnnotationData;
 
-    private List<ModContainer> containers = Lists.newArrayList();
-    private SetMultimap<String,ModCandidate> packageMap = HashMultimap.create();
+    /**
+     * Builds the index the queries use, called when discovery is done. The table is indexed again if it
+     * changes afterwards.
+     */
+    void buildIndex()
+    {
+        index();
+    }
 
     public SetMultimap<String,ASMData> getAnnotationsFor(ModContainer container)
     {
-        if (containerAnnotationData == null)
+        Index idx = index();
+        long start = System.nanoTime();
+        SetMultimap<String, ASMData> ret = null;
+        if (idx.containers.contains(container))
         {
-            ImmutableMap.Builder<ModContainer, SetMultimap<String, ASMData>> mapBuilder = ImmutableMap.<ModContainer, SetMultimap<String,ASMData>>builder();
-            for (ModContainer cont : containers)
+            ret = idx.bySource.get(container.getSource());
+            if (ret == null)
             {
-                Multimap<String, ASMData> values = Multimaps.filterValues(globalAnnotationData, new ModContainerPredicate(cont));
-                mapBuilder.put(cont, ImmutableSetMultimap.copyOf(values));
+                ret = ImmutableSetMultimap.of();
             }
-            containerAnnotationData = mapBuilder.build();
         }
-        return containerAnnotationData.get(container);
+        countQuery(start);
+        return ret;
     }
 
     public Set<ASMData> getAll(String annotation)
     {
-        return globalAnnotationData.get(annotation);
+        Index idx = index();
+        long start = System.nanoTime();
+        Set<ASMData> ret = idx.byAnnotation.get(annotation);
+        countQuery(start);
+        return ret;
+    }
+
+    private void countQuery(long start)
+    {
+        queries.incrementAndGet();
+        queryNanos.addAndGet(System.nanoTime() - start);
     }
 
     public void addASMData(ModCandidate candidate, String annotation, String className, String objectName, Map<String,Object> annotationInfo)
     {
+        annotation = strings.intern(annotation);
+        className = strings.intern(className);
+        objectName = objectName != null ? strings.intern(objectName) : null;
         globalAnnotationData.put(annotation, new ASMData(candidate, annotation, className, objectName, annotationInfo));
+        index = null;
     }
 
     public void addContainer(ModContainer container)
     {
         this.containers.add(container);
+        this.index = null;
     }
 
     public void registerPackage(ModCandidate modCandidate, String pkg)
@@ -138,4 +227,27 @@ public class ASMDataTable
     {
         return this.packageMap.get(pkg);
     }
+
+    /**
+     * Adds everything found in another table, used to merge the tables candidates are explored into.
+     * Merging the tables of the candidates in the same order always gives the same table.
+     */
+    void addAll(ASMDataTable other)
+    {
+        this.globalAnnotationData.putAll(other.globalAnnotationData);
+        this.containers.addAll(other.containers);
+        this.packageMap.putAll(other.packageMap);
+        this.index = null;
+    }
+
+    /**
+     * Logs the size of the index and the time spent building and querying it so far.
+     */
+    public void logStatistics()
+    {
+        Index idx = index();
+        FMLLog.fine("ASM data table: %d entries for %d annotations in %d sources, %d distinct names (about %d KB), indexed in %.3fs, %d queries took %.3fs",
+                idx.byAnnotation.size(), idx.byAnnotation.keySet().size(), idx.bySource.size(), idx.names, (idx.names * 40 + idx.nameChars * 2) / 1024,
+                idx.buildNanos / 1.0E9D, queries.get(), queryNanos.get() / 1.0E9D);
+    }
 }
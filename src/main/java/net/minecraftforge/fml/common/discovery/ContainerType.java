@@ -23,22 +23,25 @@ public enum ContainerType
     JAR(JarDiscoverer.class),
     DIR(DirectoryDiscoverer.class);
 
-    private ITypeDiscoverer discoverer;
+    private Class<? extends ITypeDiscoverer> discovererClass;
 
     private ContainerType(Class<? extends ITypeDiscoverer> discovererClass)
     {
+        this.discovererClass = discovererClass;
+    }
+
+    public List<ModContainer> findMods(ModCandidate candidate, ASMDataTable table)
+    {
+        // A discoverer per call, candidates are explored in parallel and discoverers may keep state
+        ITypeDiscoverer discoverer;
         try
         {
-            this.discoverer = discovererClass.newInstance();
+            discoverer = discovererClass.newInstance();
         }
         catch (Exception e)
         {
             throw Throwables.propagate(e);
         }
-    }
-
-    public List<ModContainer> findMods(ModCandidate candidate, ASMDataTable table)
-    {
         return discoverer.discover(candidate, table);
     }
 }
@@ -12,8 +12,12 @@
 
 package net.minecraftforge.fml.common.discovery;
 
-import java.util.Collections;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
 import java.util.List;
+import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
 import net.minecraftforge.fml.common.FMLLog;
@@ -29,6 +33,7 @@ import java.util.regex.Matcher;
 import java.util.zip.ZipEntry;
 
 import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
 
 public class JarDiscoverer implements ITypeDiscoverer
 {
@@ -47,20 +52,71 @@ public class JarDiscoverer implements ITypeDiscoverer
                 FMLLog.finer("Ignoring coremod or tweak system %s", candidate.getModContainer());
                 return foundMods;
             }
-            ZipEntry modInfo = jar.getEntry("mcmod.info");
+            ASMDataCache cache = candidate.scanCache;
+            byte[] hash = cache != null ? ASMDataCache.hash(jar) : null;
+            ASMDataCache.Entry cached = cache != null ? cache.get(candidate.getModContainer(), hash) : null;
+            List<String> classes = Lists.newArrayList();
+            List<ASMModParser> parsers = Lists.newArrayList();
+            if (cached != null)
+            {
+                try
+                {
+                    parsers = cached.readClasses(classes);
+                }
+                catch (IOException e)
+                {
+                    FMLLog.log(Level.WARN, e, "The cached scan of %s is damaged, it will be scanned again", candidate.getModContainer().getName());
+                    classes.clear();
+                    cached = null;
+                }
+            }
+            byte[] modInfo = null;
+            if (cached != null)
+            {
+                modInfo = cached.getModInfo();
+            }
+            else
+            {
+                ZipEntry modInfoEntry = jar.getEntry("mcmod.info");
+                if (modInfoEntry != null)
+                {
+                    InputStream stream = jar.getInputStream(modInfoEntry);
+                    try
+                    {
+                        modInfo = ByteStreams.toByteArray(stream);
+                    }
+                    finally
+                    {
+                        stream.close();
+                    }
+                }
+            }
             MetadataCollection mc = null;
             if (modInfo != null)
             {
                 FMLLog.finer("Located mcmod.info file in file %s", candidate.getModContainer().getName());
-                mc = MetadataCollection.from(jar.getInputStream(modInfo), candidate.getModContainer().getName());
+                mc = MetadataCollection.from(new ByteArrayInputStream(modInfo), candidate.getModContainer().getName());
             }
             else
             {
                 FMLLog.fine("The mod container %s appears to be missing an mcmod.info file", candidate.getModContainer().getName());
                 mc = MetadataCollection.from(null, "");
             }
-            for (ZipEntry ze : Collections.list(jar.entries()))
+
+            if (cached != null)
+            {
+                FMLLog.finer("Using the cached scan of %s", candidate.getModContainer().getName());
+                for (int i = 0; i < classes.size(); i++)
+                {
+                    handleClass(classes.get(i), parsers.get(i), candidate, table, mc, foundMods);
+                }
+                return foundMods;
+            }
+
+            long scanNanos = 0;
+            for (Enumeration<JarEntry> entries = jar.entries(); entries.hasMoreElements();)
             {
+                ZipEntry ze = entries.nextElement();
                 if (ze.getName()!=null && ze.getName().startsWith("__MACOSX"))
                 {
                     continue;
@@ -71,8 +127,9 @@ public class JarDiscoverer implements ITypeDiscoverer
                     ASMModParser modParser;
                     try
                     {
+                        long start = System.nanoTime();
                         modParser = new ASMModParser(jar.getInputStream(ze));
-                        candidate.addClassEntry(ze.getName());
+                        scanNanos += System.nanoTime() - start;
                     }
                     catch (LoaderException e)
                     {
@@ -80,17 +137,18 @@ public class JarDiscoverer implements ITypeDiscoverer
                         jar.close();
                         throw e;
                     }
-                    modParser.validate();
-                    modParser.sendToTable(table, candidate);
-                    ModContainer container = ModContainerFactory.instance().build(modParser, candidate.getModContainer(), candidate);
-                    if (container!=null)
+                    if (cache != null)
                     {
-                        table.addContainer(container);
-                        foundMods.add(container);
-                        container.bindMetadata(mc);
+                        classes.add(ze.getName());
+                        parsers.add(modParser);
                     }
+                    handleClass(ze.getName(), modParser, candidate, table, mc, foundMods);
                 }
             }
+            if (cache != null)
+            {
+                cache.put(candidate.getModContainer(), hash, modInfo, classes, parsers, scanNanos);
+            }
         }
         catch (Exception e)
         {
@@ -112,4 +170,17 @@ public class JarDiscoverer implements ITypeDiscoverer
         return foundMods;
     }
 
+    private void handleClass(String name, ASMModParser modParser, ModCandidate candidate, ASMDataTable table, MetadataCollection mc, List<ModContainer> foundMods)
+    {
+        candidate.addClassEntry(name);
+        modParser.validate();
+        modParser.sendToTable(table, candidate);
+        ModContainer container = ModContainerFactory.instance().build(modParser, candidate.getModContainer(), candidate);
+        if (container!=null)
+        {
+            table.addContainer(container);
+            foundMods.add(container);
+            container.bindMetadata(mc);
+        }
+    }
 }
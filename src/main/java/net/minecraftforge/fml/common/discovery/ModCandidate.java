@@ -37,6 +37,7 @@ public class ModCandidate
     private List<ModContainer> mods;
     private List<String> packages = Lists.newArrayList();
     private ASMDataTable table;
+    ASMDataCache scanCache;
 
     public ModCandidate(File classPathRoot, File modContainer, ContainerType sourceType)
     {
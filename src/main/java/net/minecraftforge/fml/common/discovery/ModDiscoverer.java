@@ -14,6 +14,12 @@ package net.minecraftforge.fml.common.discovery;
 
 import java.io.File;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,6 +37,8 @@ import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.ObjectArrays;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 public class ModDiscoverer
 {
@@ -42,6 +50,8 @@ public class ModDiscoverer
 
     private List<File> nonModLibs = Lists.newArrayList();
 
+    private ASMDataCache scanCache;
+
     public void findClasspathMods(ModClassLoader modClassLoader)
     {
         List<String> knownLibraries = ImmutableList.<String>builder()
@@ -124,34 +134,97 @@ public class ModDiscoverer
         }
     }
 
+    /**
+     * Keeps what was found in mod jars in the file, so jars that didn't change aren't read again on the next launch.
+     */
+    public void setScanCache(File file)
+    {
+        scanCache = ASMDataCache.load(file);
+    }
+
     public List<ModContainer> identifyMods()
     {
         List<ModContainer> modList = Lists.newArrayList();
 
-        for (ModCandidate candidate : candidates)
+        // Every candidate is explored into a table of its own, possibly on another thread. The tables are merged
+        // in the order of the candidates, so the result is the same as exploring them one after another.
+        int threads = Math.min(candidates.size(), Integer.getInteger("fml.discoveryThreads", Math.min(Runtime.getRuntime().availableProcessors(), 8)));
+        ExecutorService pool = threads > 1 ? Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat("FML Mod Discovery %d").setDaemon(true).build()) : null;
+        try
         {
-            try
+            List<Future<List<ModContainer>>> explored = Lists.newArrayListWithCapacity(candidates.size());
+            List<ASMDataTable> tables = Lists.newArrayListWithCapacity(candidates.size());
+            for (final ModCandidate candidate : candidates)
             {
-                List<ModContainer> mods = candidate.explore(dataTable);
-                if (mods.isEmpty() && !candidate.isClasspath())
+                final ASMDataTable table = new ASMDataTable();
+                candidate.scanCache = scanCache;
+                Callable<List<ModContainer>> explore = new Callable<List<ModContainer>>()
                 {
-                    nonModLibs.add(candidate.getModContainer());
+                    @Override
+                    public List<ModContainer> call()
+                    {
+                        return candidate.explore(table);
+                    }
+                };
+                if (pool != null)
+                {
+                    explored.add(pool.submit(explore));
                 }
                 else
                 {
-                    modList.addAll(mods);
+                    FutureTask<List<ModContainer>> task = new FutureTask<List<ModContainer>>(explore);
+                    task.run();
+                    explored.add(task);
                 }
+                tables.add(table);
             }
-            catch (LoaderException le)
+
+            for (int i = 0; i < candidates.size(); i++)
             {
-                FMLLog.log(Level.WARN, le, "Identified a problem with the mod candidate %s, ignoring this source", candidate.getModContainer());
+                ModCandidate candidate = candidates.get(i);
+                try
+                {
+                    List<ModContainer> mods = Uninterruptibles.getUninterruptibly(explored.get(i));
+                    if (mods.isEmpty() && !candidate.isClasspath())
+                    {
+                        nonModLibs.add(candidate.getModContainer());
+                    }
+                    else
+                    {
+                        modList.addAll(mods);
+                    }
+                }
+                catch (ExecutionException e)
+                {
+                    if (e.getCause() instanceof LoaderException)
+                    {
+                        FMLLog.log(Level.WARN, e.getCause(), "Identified a problem with the mod candidate %s, ignoring this source", candidate.getModContainer());
+                    }
+                    else
+                    {
+                        Throwables.propagate(e.getCause());
+                    }
+                }
+                finally
+                {
+                    dataTable.addAll(tables.get(i));
+                }
             }
-            catch (Throwable t)
+        }
+        finally
+        {
+            if (pool != null)
             {
-                Throwables.propagate(t);
+                pool.shutdownNow();
             }
         }
 
+        if (scanCache != null)
+        {
+            scanCache.save();
+        }
+        dataTable.buildIndex();
+
         return modList;
     }
 
@@ -12,6 +12,8 @@
 
 package net.minecraftforge.fml.common.discovery.asm;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
@@ -59,6 +61,44 @@ public class ASMModParser
         }
     }
 
+    private ASMModParser()
+    {
+    }
+
+    /**
+     * Rebuilds a parser saved with {@link #write(DataOutput)}, without reading the class again.
+     */
+    public static ASMModParser read(DataInput in) throws IOException
+    {
+        ASMModParser parser = new ASMModParser();
+        parser.beginNewTypeName(in.readUTF(), in.readInt(), ModAnnotation.readString(in));
+        parser.baseModProperties = ModAnnotation.readString(in);
+        int count = in.readInt();
+        for (int i = 0; i < count; i++)
+        {
+            parser.annotations.add(ModAnnotation.read(in));
+        }
+        return parser;
+    }
+
+    /**
+     * Saves what was parsed, for the scan cache.
+     *
+     * @throws IOException if an annotation value can't be saved
+     */
+    public void write(DataOutput out) throws IOException
+    {
+        out.writeUTF(asmType.getInternalName());
+        out.writeInt(classVersion);
+        ModAnnotation.writeString(out, asmSuperType == null ? null : asmSuperType.getInternalName());
+        ModAnnotation.writeString(out, baseModProperties);
+        out.writeInt(annotations.size());
+        for (ModAnnotation ann : annotations)
+        {
+            ann.write(out);
+        }
+    }
+
     public void beginNewTypeName(String typeQName, int classVersion, String superClassQName)
     {
         this.asmType = Type.getObjectType(typeQName);
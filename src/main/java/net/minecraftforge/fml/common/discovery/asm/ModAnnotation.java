@@ -12,7 +12,12 @@
 
 package net.minecraftforge.fml.common.discovery.asm;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import net.minecraftforge.fml.common.discovery.asm.ASMModParser.AnnotationType;
@@ -36,6 +41,15 @@ public class ModAnnotation
             this.value = value;
         }
 
+        public String getDesc()
+        {
+            return desc;
+        }
+
+        public String getValue()
+        {
+            return value;
+        }
     }
     AnnotationType type;
     Type asmType;
@@ -108,6 +122,202 @@ public class ModAnnotation
         values.put(arrayName, arrayList);
         arrayList = null;
     }
+    /**
+     * Writes the annotation for the scan cache, see {@link ASMModParser#write(DataOutput)}.
+     *
+     * @throws IOException if a value can't be written, the class can't be cached then
+     */
+    void write(DataOutput out) throws IOException
+    {
+        out.writeByte(type.ordinal());
+        out.writeUTF(asmType.getDescriptor());
+        writeString(out, member);
+        writeValue(out, values);
+    }
+
+    @SuppressWarnings("unchecked")
+    static ModAnnotation read(DataInput in) throws IOException
+    {
+        AnnotationType type = AnnotationType.values()[in.readByte()];
+        ModAnnotation ann = new ModAnnotation(type, Type.getType(in.readUTF()), readString(in));
+        ann.values = (Map<String,Object>)ann.readValue(in);
+        return ann;
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException
+    {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    static String readString(DataInput in) throws IOException
+    {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeValue(DataOutput out, Object value) throws IOException
+    {
+        if (value instanceof String)
+        {
+            out.writeByte(0);
+            out.writeUTF((String)value);
+        }
+        else if (value instanceof Integer)
+        {
+            out.writeByte(1);
+            out.writeInt((Integer)value);
+        }
+        else if (value instanceof Boolean)
+        {
+            out.writeByte(2);
+            out.writeBoolean((Boolean)value);
+        }
+        else if (value instanceof Long)
+        {
+            out.writeByte(3);
+            out.writeLong((Long)value);
+        }
+        else if (value instanceof Float)
+        {
+            out.writeByte(4);
+            out.writeFloat((Float)value);
+        }
+        else if (value instanceof Double)
+        {
+            out.writeByte(5);
+            out.writeDouble((Double)value);
+        }
+        else if (value instanceof Byte)
+        {
+            out.writeByte(6);
+            out.writeByte((Byte)value);
+        }
+        else if (value instanceof Short)
+        {
+            out.writeByte(7);
+            out.writeShort((Short)value);
+        }
+        else if (value instanceof Character)
+        {
+            out.writeByte(8);
+            out.writeChar((Character)value);
+        }
+        else if (value instanceof Type)
+        {
+            out.writeByte(9);
+            out.writeUTF(((Type)value).getDescriptor());
+        }
+        else if (value instanceof EnumHolder)
+        {
+            out.writeByte(10);
+            out.writeUTF(((EnumHolder)value).desc);
+            out.writeUTF(((EnumHolder)value).value);
+        }
+        else if (value instanceof List)
+        {
+            out.writeByte(11);
+            out.writeInt(((List<?>)value).size());
+            for (Object o : (List<?>)value)
+            {
+                writeValue(out, o);
+            }
+        }
+        else if (value instanceof Map)
+        {
+            out.writeByte(12);
+            out.writeInt(((Map<?,?>)value).size());
+            for (Map.Entry<?,?> e : ((Map<?,?>)value).entrySet())
+            {
+                writeString(out, (String)e.getKey());
+                writeValue(out, e.getValue());
+            }
+        }
+        else if (value != null && value.getClass().isArray() && value.getClass().getComponentType().isPrimitive())
+        {
+            // ASM passes arrays of primitives as they are
+            out.writeByte(13);
+            out.writeUTF(Type.getDescriptor(value.getClass().getComponentType()));
+            int length = Array.getLength(value);
+            out.writeInt(length);
+            for (int i = 0; i < length; i++)
+            {
+                writeValue(out, Array.get(value, i));
+            }
+        }
+        else
+        {
+            throw new IOException("Unsupported annotation value " + value);
+        }
+    }
+
+    private Object readValue(DataInput in) throws IOException
+    {
+        byte tag = in.readByte();
+        switch (tag)
+        {
+            case 0: return in.readUTF();
+            case 1: return in.readInt();
+            case 2: return in.readBoolean();
+            case 3: return in.readLong();
+            case 4: return in.readFloat();
+            case 5: return in.readDouble();
+            case 6: return in.readByte();
+            case 7: return in.readShort();
+            case 8: return in.readChar();
+            case 9: return Type.getType(in.readUTF());
+            case 10: return new EnumHolder(in.readUTF(), in.readUTF());
+            case 11:
+            {
+                int size = in.readInt();
+                ArrayList<Object> list = Lists.newArrayListWithCapacity(size);
+                for (int i = 0; i < size; i++)
+                {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case 12:
+            {
+                int size = in.readInt();
+                Map<String,Object> map = Maps.newHashMap();
+                for (int i = 0; i < size; i++)
+                {
+                    map.put(readString(in), readValue(in));
+                }
+                return map;
+            }
+            case 13:
+            {
+                Class<?> component = primitiveClass(in.readUTF());
+                int length = in.readInt();
+                Object array = Array.newInstance(component, length);
+                for (int i = 0; i < length; i++)
+                {
+                    Array.set(array, i, readValue(in));
+                }
+                return array;
+            }
+            default:
+                throw new IOException("Unknown annotation value type " + tag);
+        }
+    }
+
+    private static Class<?> primitiveClass(String desc) throws IOException
+    {
+        switch (Type.getType(desc).getSort())
+        {
+            case Type.BOOLEAN: return boolean.class;
+            case Type.BYTE: return byte.class;
+            case Type.CHAR: return char.class;
+            case Type.SHORT: return short.class;
+            case Type.INT: return int.class;
+            case Type.LONG: return long.class;
+            case Type.FLOAT: return float.class;
+            case Type.DOUBLE: return double.class;
+            default: throw new IOException("Unknown annotation array type " + desc);
+        }
+    }
+
     public ModAnnotation addChildAnnotation(String name, String desc)
     {
         ModAnnotation child = new ModAnnotation(AnnotationType.SUBTYPE, Type.getType(desc), this);
@@ -20,25 +20,53 @@ public class ASMEventHandler implements IEventListener
     private static int IDs = 0;
     private static final String HANDLER_DESC = Type.getInternalName(IEventListener.class);
     private static final String HANDLER_FUNC_DESC = Type.getMethodDescriptor(IEventListener.class.getDeclaredMethods()[0]);
-    private static final ASMClassLoader LOADER = new ASMClassLoader();
+    static final ASMClassLoader LOADER = new ASMClassLoader();
     private static final HashMap<Method, Class<?>> cache = Maps.newHashMap();
-    private static final boolean GETCONTEXT = Boolean.parseBoolean(System.getProperty("fml.LogContext", "false"));
+    static final boolean GETCONTEXT = Boolean.parseBoolean(System.getProperty("fml.LogContext", "false"));
 
     private final IEventListener handler;
     private final SubscribeEvent subInfo;
+    private final Object target;
+    private final Method method;
+    private final EventProfiler.ListenerStats stats;
     private ModContainer owner;
     private String readable;
 
     public ASMEventHandler(Object target, Method method, ModContainer owner) throws Exception
     {
         this.owner = owner;
+        this.target = target;
+        this.method = method;
         handler = (IEventListener)createWrapper(method).getConstructor(Object.class).newInstance(target);
         subInfo = method.getAnnotation(SubscribeEvent.class);
         readable = "ASM: " + target + " " + method.getName() + Type.getMethodDescriptor(method);
+        stats = EventProfiler.ENABLED ? EventProfiler.register(this) : null;
     }
 
     @Override
     public void invoke(Event event)
+    {
+        if (EventProfiler.ENABLED && EventProfiler.isRunning())
+        {
+            long bytes = EventProfiler.allocatedBytes();
+            long start = System.nanoTime();
+            try
+            {
+                dispatch(event);
+            }
+            finally
+            {
+                long time = System.nanoTime() - start;
+                stats.record(time, EventProfiler.allocatedBytes() - bytes);
+            }
+        }
+        else
+        {
+            dispatch(event);
+        }
+    }
+
+    private void dispatch(Event event)
     {
         if (owner != null && GETCONTEXT)
         {
@@ -64,6 +92,31 @@ public class ASMEventHandler implements IEventListener
         return subInfo.priority();
     }
 
+    ModContainer getOwner()
+    {
+        return owner;
+    }
+
+    Object getTarget()
+    {
+        return target;
+    }
+
+    Method getMethod()
+    {
+        return method;
+    }
+
+    boolean receiveCanceled()
+    {
+        return subInfo.receiveCanceled();
+    }
+
+    public boolean isAsync()
+    {
+        return subInfo.async();
+    }
+
     public Class<?> createWrapper(Method callback)
     {
         if (cache.containsKey(callback))
@@ -132,7 +185,7 @@ public class ASMEventHandler implements IEventListener
                 callback.getParameterTypes()[0].getSimpleName());
     }
 
-    private static class ASMClassLoader extends ClassLoader
+    static class ASMClassLoader extends ClassLoader
     {
         private ASMClassLoader()
         {
@@ -0,0 +1,218 @@
+package net.minecraftforge.fml.common.eventhandler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Second set of listeners of an {@link EventBus}, for handlers marked with {@link SubscribeEvent#async()}.
+ *
+ * The lane owns its own bus ID in every {@link ListenerList}, so parent events and priorities work like
+ * they do for the synchronous listeners. After the synchronous listeners have run, the event is queued
+ * once for every async listener. Each listener has its own bounded queue that is drained by one worker
+ * at a time, so a listener sees events in the order they were posted. When a queue is full the posting
+ * thread waits for space, which is counted in the {@link Stats}.
+ *
+ * Threads and queue size can be set with -Dfml.asyncEventThreads and -Dfml.asyncEventQueueSize.
+ */
+public class AsyncEventLane
+{
+    private static final int THREADS = Integer.parseInt(System.getProperty("fml.asyncEventThreads", String.valueOf(Math.max(1, Runtime.getRuntime().availableProcessors() / 2))));
+    private static final int QUEUE_SIZE = Integer.parseInt(System.getProperty("fml.asyncEventQueueSize", "1024"));
+    /**
+     * Events handled by a worker before it gives the thread to the next listener.
+     */
+    private static final int BATCH_SIZE = 64;
+    private static final ThreadLocal<ListenerQueue> running = new ThreadLocal<ListenerQueue>();
+
+    final int busID;
+    private final EventBus bus;
+    private final ExecutorService executor;
+    private final Map<IEventListener, ListenerQueue> queues = new ConcurrentHashMap<IEventListener, ListenerQueue>();
+
+    AsyncEventLane(EventBus bus, int busID)
+    {
+        this.bus = bus;
+        this.busID = busID;
+        this.executor = new ThreadPoolExecutor(THREADS, THREADS, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat("FML Async Event Thread - %d").setDaemon(true).build());
+    }
+
+    void post(Event event)
+    {
+        IEventListener[] listeners = event.getListenerList().getListeners(busID);
+        for (IEventListener listener : listeners)
+        {
+            // Phases can only move forward, and async listeners run concurrently
+            if (listener instanceof EventPriority) continue;
+            queueFor(listener).submit(event);
+        }
+    }
+
+    void unregister(IEventListener listener)
+    {
+        queues.remove(listener);
+    }
+
+    private ListenerQueue queueFor(IEventListener listener)
+    {
+        ListenerQueue queue = queues.get(listener);
+        if (queue == null)
+        {
+            synchronized (queues)
+            {
+                queue = queues.get(listener);
+                if (queue == null)
+                {
+                    queue = new ListenerQueue(listener);
+                    queues.put(listener, queue);
+                }
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Returns a snapshot of the queue metrics of every async listener that has received an event.
+     */
+    public List<Stats> getStats()
+    {
+        List<Stats> ret = Lists.newArrayList();
+        for (ListenerQueue queue : queues.values())
+        {
+            ret.add(new Stats(queue.listener.toString(), queue.submitted.get(), queue.completed.get(), queue.blocked.get(),
+                    queue.blockedNanos.get(), queue.pending.size(), queue.maxDepth.get()));
+        }
+        return ret;
+    }
+
+    private class ListenerQueue implements Runnable
+    {
+        private final IEventListener listener;
+        private final ArrayBlockingQueue<Event> pending = new ArrayBlockingQueue<Event>(QUEUE_SIZE);
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private final AtomicLong submitted = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong blocked = new AtomicLong();
+        private final AtomicLong blockedNanos = new AtomicLong();
+        private final AtomicLong maxDepth = new AtomicLong();
+
+        private ListenerQueue(IEventListener listener)
+        {
+            this.listener = listener;
+        }
+
+        private void submit(Event event)
+        {
+            submitted.incrementAndGet();
+            if (!pending.offer(event))
+            {
+                if (running.get() == this)
+                {
+                    // The listener posted to itself with a full queue, waiting would never end
+                    invoke(event);
+                    return;
+                }
+                blocked.incrementAndGet();
+                long start = System.nanoTime();
+                try
+                {
+                    pending.put(event);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    invoke(event);
+                    return;
+                }
+                finally
+                {
+                    blockedNanos.addAndGet(System.nanoTime() - start);
+                }
+            }
+            int depth = pending.size();
+            if (depth > maxDepth.get())
+            {
+                maxDepth.set(depth);
+            }
+            schedule();
+        }
+
+        private void schedule()
+        {
+            if (scheduled.compareAndSet(false, true))
+            {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run()
+        {
+            running.set(this);
+            try
+            {
+                Event event;
+                for (int x = 0; x < BATCH_SIZE && (event = pending.poll()) != null; x++)
+                {
+                    invoke(event);
+                }
+            }
+            finally
+            {
+                running.remove();
+                scheduled.set(false);
+            }
+            if (!pending.isEmpty())
+            {
+                schedule();
+            }
+        }
+
+        private void invoke(Event event)
+        {
+            try
+            {
+                listener.invoke(event);
+            }
+            catch (Throwable throwable)
+            {
+                bus.handleAsyncException(event, listener, throwable);
+            }
+            completed.incrementAndGet();
+        }
+    }
+
+    public static class Stats
+    {
+        public final String listener;
+        public final long submitted;
+        public final long completed;
+        /** How many times the posting thread had to wait for a full queue, and for how long in total */
+        public final long blocked;
+        public final long blockedNanos;
+        public final int queued;
+        public final long maxQueued;
+
+        private Stats(String listener, long submitted, long completed, long blocked, long blockedNanos, int queued, long maxQueued)
+        {
+            this.listener = listener;
+            this.submitted = submitted;
+            this.completed = completed;
+            this.blocked = blocked;
+            this.blockedNanos = blockedNanos;
+            this.queued = queued;
+            this.maxQueued = maxQueued;
+        }
+    }
+}
@@ -3,9 +3,12 @@ package net.minecraftforge.fml.common.eventhandler;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nonnull;
 
@@ -22,12 +25,15 @@ import com.google.common.reflect.TypeToken;
 
 public class EventBus implements IEventExceptionHandler
 {
-    private static int maxID = 0;
+    private static final AtomicInteger maxID = new AtomicInteger(0);
+    private static final ConcurrentHashMap<Class<?>, ListenerList> listenerLists = new ConcurrentHashMap<Class<?>, ListenerList>();
+    private static final boolean COMPILED_DISPATCH = Boolean.parseBoolean(System.getProperty("fml.compiledEventDispatch", "false"));
 
     private ConcurrentHashMap<Object, ArrayList<IEventListener>> listeners = new ConcurrentHashMap<Object, ArrayList<IEventListener>>();
     private Map<Object,ModContainer> listenerOwners = new MapMaker().weakKeys().weakValues().makeMap();
-    private final int busID = maxID++;
+    private final int busID = maxID.getAndIncrement();
     private IEventExceptionHandler exceptionHandler;
+    private volatile AsyncEventLane asyncLane;
 
     public EventBus()
     {
@@ -102,7 +108,7 @@ public class EventBus implements IEventExceptionHandler
             ctr.setAccessible(true);
             Event event = (Event)ctr.newInstance();
             ASMEventHandler listener = new ASMEventHandler(target, method, owner);
-            event.getListenerList().register(busID, listener.getPriority(), listener);
+            event.getListenerList().register(listener.isAsync() ? getAsyncLane().busID : busID, listener.getPriority(), listener);
 
             ArrayList<IEventListener> others = listeners.get(target);
             if (others == null)
@@ -124,28 +130,111 @@ public class EventBus implements IEventExceptionHandler
         for (IEventListener listener : list)
         {
             ListenerList.unregisterAll(busID, listener);
+            if (asyncLane != null)
+            {
+                ListenerList.unregisterAll(asyncLane.busID, listener);
+                asyncLane.unregister(listener);
+            }
         }
     }
 
+    private synchronized AsyncEventLane getAsyncLane()
+    {
+        if (asyncLane == null)
+        {
+            int id = maxID.getAndIncrement();
+            ListenerList.resize(id + 1);
+            asyncLane = new AsyncEventLane(this, id);
+        }
+        return asyncLane;
+    }
+
+    /**
+     * Returns the queue metrics of the listeners registered with {@link SubscribeEvent#async()},
+     * empty if there are none.
+     */
+    public List<AsyncEventLane.Stats> getAsyncStats()
+    {
+        return asyncLane == null ? Collections.<AsyncEventLane.Stats>emptyList() : asyncLane.getStats();
+    }
+
+    /**
+     * Checks if anything is registered on this bus that would receive an event of the specified type,
+     * including listeners registered for any of its parent events.
+     *
+     * Answers from the cached listener array, so hooks can use this to skip constructing
+     * events that nobody listens to. Events that fire regardless are still safe to post.
+     *
+     * @param eventType The event class, must have a default constructor like every registered event
+     * @return true if posting an event of this type would call at least one listener
+     */
+    public boolean hasListeners(Class<? extends Event> eventType)
+    {
+        ListenerList list = getListenerList(eventType);
+        return list.hasListeners(busID) || (asyncLane != null && list.hasListeners(asyncLane.busID));
+    }
+
+    private static ListenerList getListenerList(Class<? extends Event> eventType)
+    {
+        ListenerList list = listenerLists.get(eventType);
+        if (list == null)
+        {
+            try
+            {
+                Constructor<? extends Event> ctr = eventType.getConstructor();
+                ctr.setAccessible(true);
+                list = ctr.newInstance().getListenerList();
+            }
+            catch (Exception e)
+            {
+                throw new IllegalArgumentException("Unable to find the listener list of " + eventType.getName() + ", it needs a public default constructor", e);
+            }
+            listenerLists.put(eventType, list);
+        }
+        return list;
+    }
+
     public boolean post(Event event)
     {
-        IEventListener[] listeners = event.getListenerList().getListeners(busID);
-        int index = 0;
-        try
+        if (COMPILED_DISPATCH)
         {
-            for (; index < listeners.length; index++)
+            event.getListenerList().getInvoker(busID, this).invoke(event);
+        }
+        else
+        {
+            IEventListener[] listeners = event.getListenerList().getListeners(busID);
+            int index = 0;
+            try
             {
-                listeners[index].invoke(event);
+                for (; index < listeners.length; index++)
+                {
+                    listeners[index].invoke(event);
+                }
+            }
+            catch (Throwable throwable)
+            {
+                exceptionHandler.handleException(this, event, listeners, index, throwable);
+                Throwables.propagate(throwable);
             }
         }
-        catch (Throwable throwable)
+        if (asyncLane != null)
         {
-            exceptionHandler.handleException(this, event, listeners, index, throwable);
-            Throwables.propagate(throwable);
+            asyncLane.post(event);
         }
         return (event.isCancelable() ? event.isCanceled() : false);
     }
 
+    void dispatchFailed(Event event, IEventListener[] listeners, int index, Throwable throwable)
+    {
+        exceptionHandler.handleException(this, event, listeners, index, throwable);
+        Throwables.propagate(throwable);
+    }
+
+    void handleAsyncException(Event event, IEventListener listener, Throwable throwable)
+    {
+        exceptionHandler.handleException(this, event, new IEventListener[] { listener }, 0, throwable);
+    }
+
     @Override
     public void handleException(EventBus bus, Event event, IEventListener[] listeners, int index, Throwable throwable)
     {
@@ -0,0 +1,313 @@
+package net.minecraftforge.fml.common.eventhandler;
+
+import static org.objectweb.asm.Opcodes.*;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Dispatcher for a single (ListenerList, busID) pair, used by {@link EventBus#post(Event)}
+ * when compiled dispatch is enabled with -Dfml.compiledEventDispatch=true.
+ *
+ * {@link #build(EventBus, IEventListener[])} generates a subclass for the listener array,
+ * calling every {@link ASMEventHandler} target directly with the priority phase changes and
+ * cancellation checks unrolled inline. The result is cached in the ListenerList and
+ * thrown away whenever the list is rebuilt.
+ *
+ * The generated classes can not be unloaded, so they are shared by every listener array
+ * of the same shape: the same priority phases, handler methods and receiveCanceled flags
+ * at the same positions. Rebuilding a list, or building the same list for another bus,
+ * only creates a new instance with the new targets.
+ */
+public abstract class EventInvoker
+{
+    /**
+     * Above this the generated method would come close to the 64k bytecode limit,
+     * such lists are dispatched through the plain listener loop instead.
+     */
+    private static final int MAX_COMPILED_LISTENERS = 1024;
+    private static final String EVENT = Type.getInternalName(Event.class);
+    private static final String INVOKER = Type.getInternalName(EventInvoker.class);
+    private static final String LISTENER = Type.getInternalName(IEventListener.class);
+    private static final String PRIORITY = Type.getInternalName(EventPriority.class);
+    private static final String INVOKER_INIT_DESC = "(L" + Type.getInternalName(EventBus.class) + ";[L" + LISTENER + ";[Ljava/lang/Object;)V";
+    private static int IDs = 0;
+    private static final HashMap<List<Object>, Class<?>> cache = Maps.newHashMap();
+
+    protected final IEventListener[] listeners;
+    private final EventBus bus;
+
+    protected EventInvoker(EventBus bus, IEventListener[] listeners)
+    {
+        this.bus = bus;
+        this.listeners = listeners;
+    }
+
+    /**
+     * Fires the event at every listener this invoker was built for, in priority order.
+     */
+    public abstract void invoke(Event event);
+
+    /**
+     * Called by the generated code when the listener at {@code index} threw,
+     * hands the failure to the bus exception handler and rethrows.
+     */
+    protected final void fail(Event event, int index, Throwable throwable)
+    {
+        bus.dispatchFailed(event, listeners, index, throwable);
+    }
+
+    public static EventInvoker build(EventBus bus, IEventListener[] listeners)
+    {
+        if (listeners.length > MAX_COMPILED_LISTENERS)
+        {
+            return new Looping(bus, listeners);
+        }
+        try
+        {
+            Object[] targets = new Object[listeners.length];
+            for (int x = 0; x < listeners.length; x++)
+            {
+                if (isDirect(listeners[x]))
+                {
+                    targets[x] = ((ASMEventHandler)listeners[x]).getTarget();
+                }
+            }
+            Class<?> cls = getInvokerClass(listeners);
+            return (EventInvoker)cls.getConstructor(EventBus.class, IEventListener[].class, Object[].class).newInstance(bus, listeners, targets);
+        }
+        catch (Exception e)
+        {
+            // Anything the generator can't express still gets the regular behaviour
+            return new Looping(bus, listeners);
+        }
+    }
+
+    private static boolean isDirect(IEventListener listener)
+    {
+        return !ASMEventHandler.GETCONTEXT && !EventProfiler.ENABLED && listener instanceof ASMEventHandler;
+    }
+
+    /**
+     * Everything the generated code depends on, the listener instances themselves
+     * are only reached through the constructor arguments.
+     */
+    private static List<Object> getShape(IEventListener[] listeners)
+    {
+        List<Object> shape = new ArrayList<Object>(listeners.length * 2);
+        for (IEventListener listener : listeners)
+        {
+            if (listener instanceof EventPriority)
+            {
+                shape.add(listener);
+                shape.add(null);
+            }
+            else if (isDirect(listener))
+            {
+                ASMEventHandler handler = (ASMEventHandler)listener;
+                shape.add(handler.getMethod());
+                shape.add(handler.receiveCanceled());
+            }
+            else
+            {
+                shape.add(null);
+                shape.add(null);
+            }
+        }
+        return shape;
+    }
+
+    private static synchronized Class<?> getInvokerClass(IEventListener[] listeners)
+    {
+        List<Object> shape = getShape(listeners);
+        Class<?> ret = cache.get(shape);
+        if (ret == null)
+        {
+            ret = createInvoker(listeners);
+            cache.put(shape, ret);
+        }
+        return ret;
+    }
+
+    private static Class<?> createInvoker(IEventListener[] listeners)
+    {
+        String name = String.format("%s_%d_%d", EventInvoker.class.getName(), IDs++, listeners.length);
+        String desc = name.replace('.', '/');
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        MethodVisitor mv;
+
+        cw.visit(V1_6, ACC_PUBLIC | ACC_SUPER, desc, null, INVOKER, null);
+        cw.visitSource(".dynamic", null);
+
+        for (int x = 0; x < listeners.length; x++)
+        {
+            if (isDirect(listeners[x]))
+            {
+                Method callback = ((ASMEventHandler)listeners[x]).getMethod();
+                String instType = Type.getDescriptor(callback.getDeclaringClass());
+                cw.visitField(ACC_PRIVATE | ACC_FINAL, "target" + x, instType, null, null).visitEnd();
+            }
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "<init>", INVOKER_INIT_DESC, null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitMethodInsn(INVOKESPECIAL, INVOKER, "<init>", INVOKER_INIT_DESC.replace("[Ljava/lang/Object;", ""), false);
+            for (int x = 0; x < listeners.length; x++)
+            {
+                if (isDirect(listeners[x]))
+                {
+                    ASMEventHandler handler = (ASMEventHandler)listeners[x];
+                    String instType = Type.getInternalName(handler.getMethod().getDeclaringClass());
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitVarInsn(ALOAD, 3);
+                    pushInt(mv, x);
+                    mv.visitInsn(AALOAD);
+                    mv.visitTypeInsn(CHECKCAST, instType);
+                    mv.visitFieldInsn(PUTFIELD, desc, "target" + x, "L" + instType + ";");
+                }
+            }
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        {
+            // Locals: 0 this, 1 event, 2 index of the running listener, 3 event.isCancelable()
+            mv = cw.visitMethod(ACC_PUBLIC, "invoke", "(L" + EVENT + ";)V", null, null);
+            mv.visitCode();
+            Label start = new Label();
+            Label end = new Label();
+            Label handler = new Label();
+            mv.visitTryCatchBlock(start, end, handler, "java/lang/Throwable");
+            mv.visitInsn(ICONST_0);
+            mv.visitVarInsn(ISTORE, 2);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKEVIRTUAL, EVENT, "isCancelable", "()Z", false);
+            mv.visitVarInsn(ISTORE, 3);
+            mv.visitLabel(start);
+            for (int x = 0; x < listeners.length; x++)
+            {
+                IEventListener listener = listeners[x];
+                pushInt(mv, x);
+                mv.visitVarInsn(ISTORE, 2);
+                if (listener instanceof EventPriority)
+                {
+                    mv.visitVarInsn(ALOAD, 1);
+                    mv.visitFieldInsn(GETSTATIC, PRIORITY, ((EventPriority)listener).name(), "L" + PRIORITY + ";");
+                    mv.visitMethodInsn(INVOKEVIRTUAL, EVENT, "setPhase", "(L" + PRIORITY + ";)V", false);
+                }
+                else if (isDirect(listener))
+                {
+                    ASMEventHandler asm = (ASMEventHandler)listener;
+                    Method callback = asm.getMethod();
+                    String instType = Type.getInternalName(callback.getDeclaringClass());
+                    Label call = new Label();
+                    Label next = new Label();
+                    if (!asm.receiveCanceled())
+                    {
+                        mv.visitVarInsn(ILOAD, 3);
+                        mv.visitJumpInsn(IFEQ, call);
+                        mv.visitVarInsn(ALOAD, 1);
+                        mv.visitMethodInsn(INVOKEVIRTUAL, EVENT, "isCanceled", "()Z", false);
+                        mv.visitJumpInsn(IFNE, next);
+                    }
+                    mv.visitLabel(call);
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitFieldInsn(GETFIELD, desc, "target" + x, "L" + instType + ";");
+                    mv.visitVarInsn(ALOAD, 1);
+                    mv.visitTypeInsn(CHECKCAST, Type.getInternalName(callback.getParameterTypes()[0]));
+                    mv.visitMethodInsn(INVOKEVIRTUAL, instType, callback.getName(), Type.getMethodDescriptor(callback), false);
+                    int size = Type.getReturnType(callback).getSize();
+                    if (size == 1)
+                    {
+                        mv.visitInsn(POP);
+                    }
+                    else if (size == 2)
+                    {
+                        mv.visitInsn(POP2);
+                    }
+                    mv.visitLabel(next);
+                }
+                else
+                {
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitFieldInsn(GETFIELD, INVOKER, "listeners", "[L" + LISTENER + ";");
+                    pushInt(mv, x);
+                    mv.visitInsn(AALOAD);
+                    mv.visitVarInsn(ALOAD, 1);
+                    mv.visitMethodInsn(INVOKEINTERFACE, LISTENER, "invoke", "(L" + EVENT + ";)V", true);
+                }
+            }
+            mv.visitLabel(end);
+            mv.visitInsn(RETURN);
+            mv.visitLabel(handler);
+            mv.visitVarInsn(ASTORE, 4);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitVarInsn(ILOAD, 2);
+            mv.visitVarInsn(ALOAD, 4);
+            mv.visitMethodInsn(INVOKEVIRTUAL, INVOKER, "fail", "(L" + EVENT + ";ILjava/lang/Throwable;)V", false);
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        cw.visitEnd();
+        return ASMEventHandler.LOADER.define(name, cw.toByteArray());
+    }
+
+    private static void pushInt(MethodVisitor mv, int value)
+    {
+        if (value <= 5)
+        {
+            mv.visitInsn(ICONST_0 + value);
+        }
+        else if (value <= Byte.MAX_VALUE)
+        {
+            mv.visitIntInsn(BIPUSH, value);
+        }
+        else
+        {
+            mv.visitIntInsn(SIPUSH, value);
+        }
+    }
+
+    /**
+     * Fallback used for listener lists the generator does not handle, same loop as the regular EventBus.post.
+     */
+    private static class Looping extends EventInvoker
+    {
+        private Looping(EventBus bus, IEventListener[] listeners)
+        {
+            super(bus, listeners);
+        }
+
+        @Override
+        public void invoke(Event event)
+        {
+            int index = 0;
+            try
+            {
+                for (; index < listeners.length; index++)
+                {
+                    listeners[index].invoke(event);
+                }
+            }
+            catch (Throwable throwable)
+            {
+                fail(event, index, throwable);
+            }
+        }
+    }
+}
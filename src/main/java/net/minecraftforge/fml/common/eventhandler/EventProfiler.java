@@ -0,0 +1,270 @@
+package net.minecraftforge.fml.common.eventhandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.fml.common.ModContainer;
+
+import org.apache.logging.log4j.Level;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * Per listener timing for every {@link ASMEventHandler}, aggregated per owning mod in the reports.
+ *
+ * The instrumentation is compiled in only when the game is started with -Dfml.eventProfiling=true,
+ * otherwise {@link #ENABLED} is a constant false and the checks in ASMEventHandler are dropped by the JIT.
+ * Collection itself is started and stopped at runtime, through /forge events.
+ */
+public class EventProfiler
+{
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("fml.eventProfiling", "false"));
+
+    private static final Map<ASMEventHandler, ListenerStats> stats = new MapMaker().weakKeys().makeMap();
+    private static volatile boolean running = false;
+    private static volatile boolean allocations = false;
+    private static long startTime;
+
+    public static boolean isRunning()
+    {
+        return running;
+    }
+
+    /**
+     * Starts collecting, clearing anything collected before.
+     *
+     * @param trackAllocations Also record the bytes allocated by each listener, this is noticeably more expensive
+     * @return false if the profiler was not enabled on startup
+     */
+    public static boolean start(boolean trackAllocations)
+    {
+        if (!ENABLED)
+        {
+            return false;
+        }
+        if (trackAllocations && !isAllocationTrackingSupported())
+        {
+            FMLLog.log(Level.WARN, "Thread allocation tracking is not supported by this JVM, only recording timings");
+            trackAllocations = false;
+        }
+        reset();
+        allocations = trackAllocations;
+        startTime = System.nanoTime();
+        running = true;
+        return true;
+    }
+
+    public static void stop()
+    {
+        running = false;
+    }
+
+    public static void reset()
+    {
+        for (ListenerStats stat : stats.values())
+        {
+            stat.reset();
+        }
+        startTime = System.nanoTime();
+    }
+
+    static ListenerStats register(ASMEventHandler handler)
+    {
+        ListenerStats stat = new ListenerStats();
+        stats.put(handler, stat);
+        return stat;
+    }
+
+    static long allocatedBytes()
+    {
+        if (!allocations)
+        {
+            return 0;
+        }
+        return ((com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static boolean isAllocationTrackingSupported()
+    {
+        try
+        {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            return bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean)bean).isThreadAllocatedMemorySupported();
+        }
+        catch (Throwable e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a snapshot of every listener that was invoked since the last reset, slowest first.
+     */
+    public static List<Entry> getListeners()
+    {
+        List<Entry> ret = Lists.newArrayList();
+        for (Map.Entry<ASMEventHandler, ListenerStats> e : stats.entrySet())
+        {
+            ListenerStats stat = e.getValue();
+            synchronized (stat)
+            {
+                if (stat.count == 0) continue;
+                ModContainer owner = e.getKey().getOwner();
+                ret.add(new Entry(owner == null ? "unknown" : owner.getModId(), e.getKey().toString(), stat.count, stat.totalNanos, stat.maxNanos, stat.allocatedBytes));
+            }
+        }
+        Collections.sort(ret, Entry.SLOWEST_FIRST);
+        return ret;
+    }
+
+    /**
+     * Returns the listener snapshot summed up per owning mod, slowest first.
+     */
+    public static List<Entry> getMods()
+    {
+        Map<String, Entry> mods = Maps.newHashMap();
+        for (Entry listener : getListeners())
+        {
+            Entry mod = mods.get(listener.modId);
+            if (mod == null)
+            {
+                mod = new Entry(listener.modId, listener.modId, 0, 0, 0, 0);
+                mods.put(listener.modId, mod);
+            }
+            mod.count += listener.count;
+            mod.totalNanos += listener.totalNanos;
+            mod.maxNanos = Math.max(mod.maxNanos, listener.maxNanos);
+            mod.allocatedBytes += listener.allocatedBytes;
+        }
+        List<Entry> ret = new ArrayList<Entry>(mods.values());
+        Collections.sort(ret, Entry.SLOWEST_FIRST);
+        return ret;
+    }
+
+    /**
+     * Writes the current data as eventprofile-[date].csv and .json into the specified directory.
+     *
+     * @return The CSV file that was written
+     */
+    public static File dump(File dir) throws IOException
+    {
+        List<Entry> listeners = getListeners();
+        List<Entry> mods = getMods();
+        long duration = System.nanoTime() - startTime;
+        String name = "eventprofile-" + new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss").format(new Date());
+        dir.mkdirs();
+
+        StringBuilder csv = new StringBuilder("type,mod,listener,count,total_ns,max_ns,allocated_bytes\n");
+        for (Entry e : mods)
+        {
+            e.appendCSV(csv, "mod");
+        }
+        for (Entry e : listeners)
+        {
+            e.appendCSV(csv, "listener");
+        }
+        File csvFile = new File(dir, name + ".csv");
+        Files.write(csv, csvFile, Charsets.UTF_8);
+
+        JsonObject json = new JsonObject();
+        json.addProperty("durationNanos", duration);
+        json.addProperty("allocations", allocations);
+        json.add("mods", toJson(mods));
+        json.add("listeners", toJson(listeners));
+        Files.write(new GsonBuilder().setPrettyPrinting().create().toJson(json), new File(dir, name + ".json"), Charsets.UTF_8);
+        return csvFile;
+    }
+
+    private static JsonArray toJson(List<Entry> entries)
+    {
+        JsonArray ret = new JsonArray();
+        for (Entry e : entries)
+        {
+            JsonObject obj = new JsonObject();
+            obj.addProperty("mod", e.modId);
+            obj.addProperty("name", e.name);
+            obj.addProperty("count", e.count);
+            obj.addProperty("totalNanos", e.totalNanos);
+            obj.addProperty("maxNanos", e.maxNanos);
+            obj.addProperty("allocatedBytes", e.allocatedBytes);
+            ret.add(obj);
+        }
+        return ret;
+    }
+
+    static class ListenerStats
+    {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private long allocatedBytes;
+
+        synchronized void record(long nanos, long bytes)
+        {
+            count++;
+            totalNanos += nanos;
+            allocatedBytes += bytes;
+            if (nanos > maxNanos)
+            {
+                maxNanos = nanos;
+            }
+        }
+
+        synchronized void reset()
+        {
+            count = totalNanos = maxNanos = allocatedBytes = 0;
+        }
+    }
+
+    public static class Entry
+    {
+        private static final Comparator<Entry> SLOWEST_FIRST = new Comparator<Entry>()
+        {
+            @Override
+            public int compare(Entry o1, Entry o2)
+            {
+                return o1.totalNanos < o2.totalNanos ? 1 : (o1.totalNanos == o2.totalNanos ? 0 : -1);
+            }
+        };
+
+        public final String modId;
+        public final String name;
+        public long count;
+        public long totalNanos;
+        public long maxNanos;
+        public long allocatedBytes;
+
+        private Entry(String modId, String name, long count, long totalNanos, long maxNanos, long allocatedBytes)
+        {
+            this.modId = modId;
+            this.name = name;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        private void appendCSV(StringBuilder out, String type)
+        {
+            out.append(type).append(',').append(modId).append(",\"").append(name.replace("\"", "\"\"")).append("\",");
+            out.append(count).append(',').append(totalNanos).append(',').append(maxNanos).append(',').append(allocatedBytes).append('\n');
+        }
+    }
+}
@@ -96,6 +96,24 @@ public class ListenerList
         return lists[id].getListeners();
     }
 
+    /**
+     * Checks if the specified bus has any listener for this event or its parents,
+     * without copying the listener array.
+     */
+    public boolean hasListeners(int id)
+    {
+        return lists[id].getListeners().length > 0;
+    }
+
+    /**
+     * Returns the compiled dispatcher for the listeners of the specified bus,
+     * generating a new one if the listeners changed since the last call.
+     */
+    public EventInvoker getInvoker(int id, EventBus bus)
+    {
+        return lists[id].getInvoker(bus);
+    }
+
     public void register(int id, EventPriority priority, IEventListener listener)
     {
         lists[id].register(priority, listener);
@@ -118,6 +136,7 @@ public class ListenerList
     {
         private boolean rebuild = true;
         private IEventListener[] listeners;
+        private EventInvoker invoker;
         private ArrayList<ArrayList<IEventListener>> priorities;
         private ListenerListInst parent;
 
@@ -141,6 +160,7 @@ public class ListenerList
             priorities.clear();
             parent = null;
             listeners = null;
+            invoker = null;
         }
 
         private ListenerListInst(ListenerListInst parent)
@@ -184,6 +204,26 @@ public class ListenerList
             return listeners;
         }
 
+        /**
+         * Returns the generated dispatcher for the current listener array.
+         *
+         * Built lazily, and dropped together with the Array cache whenever it is rebuilt.
+         * Synchronized with {@link #buildCache()} so an invoker built for an old Array
+         * can not be published after the cache was rebuilt.
+         *
+         * @param bus The bus that owns this instance
+         * @return Invoker calling all listeners
+         */
+        public synchronized EventInvoker getInvoker(EventBus bus)
+        {
+            if (shouldRebuild()) buildCache();
+            if (invoker == null)
+            {
+                invoker = EventInvoker.build(bus, listeners);
+            }
+            return invoker;
+        }
+
         protected boolean shouldRebuild()
         {
             return rebuild || (parent != null && parent.shouldRebuild());
@@ -192,7 +232,7 @@ public class ListenerList
         /**
          * Rebuild the local Array of listeners, returns early if there is no work to do.
          */
-        private void buildCache()
+        private synchronized void buildCache()
         {
             if(parent != null && parent.shouldRebuild())
             {
@@ -210,6 +250,7 @@ public class ListenerList
                 }
             }
             listeners = ret.toArray(new IEventListener[ret.size()]);
+            invoker = null;
             rebuild = false;
         }
 
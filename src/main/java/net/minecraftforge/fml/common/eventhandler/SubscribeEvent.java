@@ -12,4 +12,10 @@ public @interface SubscribeEvent
 {
     public EventPriority priority() default EventPriority.NORMAL;
     public boolean receiveCanceled() default false;
+    /**
+     * Run this listener on the async event threads instead of the posting thread, after all
+     * synchronous listeners are done. Only for listeners that do not touch world state and
+     * events that are not changed after posting; cancelling or setting a result has no effect.
+     */
+    public boolean async() default false;
 }
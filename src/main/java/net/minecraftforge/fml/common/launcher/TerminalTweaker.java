@@ -4,12 +4,15 @@ import java.io.File;
 import java.util.List;
 import net.minecraft.launchwrapper.ITweaker;
 import net.minecraft.launchwrapper.LaunchClassLoader;
+import net.minecraftforge.fml.relauncher.TransformedClassCache;
 
 public final class TerminalTweaker implements ITweaker {
     @Override
     public void injectIntoClassLoader(LaunchClassLoader classLoader)
     {
         classLoader.registerTransformer("net.minecraftforge.fml.common.asm.transformers.TerminalTransformer");
+        // Every tweaker has registered its transformers by now
+        TransformedClassCache.install(classLoader);
     }
 
     @Override
@@ -3,6 +3,7 @@ package net.minecraftforge.fml.common.network;
 import gnu.trove.map.hash.TByteObjectHashMap;
 import gnu.trove.map.hash.TObjectByteHashMap;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
@@ -47,13 +48,7 @@ public abstract class FMLIndexedMessageToMessageCodec<A> extends MessageToMessag
     @Override
     protected final void encode(ChannelHandlerContext ctx, A msg, List<Object> out) throws Exception
     {
-        PacketBuffer buffer = new PacketBuffer(Unpooled.buffer());
-        @SuppressWarnings("unchecked") // Stupid unnecessary cast I can't seem to kill
-        Class<? extends A> clazz = (Class<? extends A>) msg.getClass();
-        byte discriminator = types.get(clazz);
-        buffer.writeByte(discriminator);
-        encodeInto(ctx, msg, buffer);
-        FMLProxyPacket proxy = new FMLProxyPacket(buffer/*.copy()*/, ctx.channel().attr(NetworkRegistry.FML_CHANNEL).get());
+        FMLProxyPacket proxy = encodeProxy(ctx, msg, ctx.channel().attr(NetworkRegistry.FML_CHANNEL).get());
         WeakReference<FMLProxyPacket> ref = ctx.attr(INBOUNDPACKETTRACKER).get().get();
         FMLProxyPacket old = ref == null ? null : ref.get();
         if (old != null)
@@ -63,6 +58,31 @@ public abstract class FMLIndexedMessageToMessageCodec<A> extends MessageToMessag
         out.add(proxy);
     }
 
+    /**
+     * Messages are written into a pooled scratch buffer, which is released as soon as its contents are copied
+     * into an unpooled payload of the exact size. Payloads are queued for slow connections and shared between
+     * targets with nobody to release them, so they stay unpooled, but they no longer hold on to the spare
+     * capacity of a growing buffer and encoding no longer grows one from scratch every time.
+     */
+    protected final FMLProxyPacket encodeProxy(ChannelHandlerContext ctx, A msg, String channel) throws Exception
+    {
+        ByteBuf scratch = PooledByteBufAllocator.DEFAULT.heapBuffer();
+        try
+        {
+            PacketBuffer buffer = new PacketBuffer(scratch);
+            @SuppressWarnings("unchecked") // Stupid unnecessary cast I can't seem to kill
+            Class<? extends A> clazz = (Class<? extends A>) msg.getClass();
+            byte discriminator = types.get(clazz);
+            buffer.writeByte(discriminator);
+            encodeInto(ctx, msg, buffer);
+            return new FMLProxyPacket(new PacketBuffer(Unpooled.copiedBuffer(scratch)), channel);
+        }
+        finally
+        {
+            scratch.release();
+        }
+    }
+
     public abstract void decodeInto(ChannelHandlerContext ctx, ByteBuf source, A msg);
 
     @Override
@@ -124,17 +124,10 @@ public class FMLOutboundHandler extends ChannelOutboundHandlerAdapter {
             public void validateArgs(Object args)
             {
             }
-            @SuppressWarnings("unchecked")
             @Override
             public List<NetworkDispatcher> selectNetworks(Object args, ChannelHandlerContext context, FMLProxyPacket packet)
             {
-                ImmutableList.Builder<NetworkDispatcher> builder = ImmutableList.<NetworkDispatcher>builder();
-                for (EntityPlayerMP player : (List<EntityPlayerMP>)FMLCommonHandler.instance().getMinecraftServerInstance().getConfigurationManager().playerEntityList)
-                {
-                    NetworkDispatcher dispatcher = player.playerNetServerHandler.netManager.channel().attr(NetworkDispatcher.FML_DISPATCHER).get();
-                    if (dispatcher != null) builder.add(dispatcher);
-                }
-                return builder.build();
+                return PlayerTargetIndex.get().all();
             }
         },
         /**
@@ -152,22 +145,10 @@ public class FMLOutboundHandler extends ChannelOutboundHandlerAdapter {
                     throw new RuntimeException("DIMENSION expects an integer argument");
                 }
             }
-            @SuppressWarnings("unchecked")
             @Override
             public List<NetworkDispatcher> selectNetworks(Object args, ChannelHandlerContext context, FMLProxyPacket packet)
             {
-                int dimension = (Integer)args;
-                ImmutableList.Builder<NetworkDispatcher> builder = ImmutableList.<NetworkDispatcher>builder();
-                for (EntityPlayerMP player : (List<EntityPlayerMP>)FMLCommonHandler.instance().getMinecraftServerInstance().getConfigurationManager().playerEntityList)
-                {
-                    if (dimension == player.dimension)
-                    {
-                        NetworkDispatcher dispatcher = player.playerNetServerHandler.netManager.channel().attr(NetworkDispatcher.FML_DISPATCHER).get();
-                        // Null dispatchers may exist for fake players - skip them
-                        if (dispatcher != null) builder.add(dispatcher);
-                    }
-                }
-                return builder.build();
+                return PlayerTargetIndex.get().inDimension((Integer)args);
             }
         },
         /**
@@ -187,28 +168,10 @@ public class FMLOutboundHandler extends ChannelOutboundHandlerAdapter {
                 }
             }
 
-            @SuppressWarnings("unchecked")
             @Override
             public List<NetworkDispatcher> selectNetworks(Object args, ChannelHandlerContext context, FMLProxyPacket packet)
             {
-                TargetPoint tp = (TargetPoint)args;
-                ImmutableList.Builder<NetworkDispatcher> builder = ImmutableList.<NetworkDispatcher>builder();
-                for (EntityPlayerMP player : (List<EntityPlayerMP>)FMLCommonHandler.instance().getMinecraftServerInstance().getConfigurationManager().playerEntityList)
-                {
-                    if (player.dimension == tp.dimension)
-                    {
-                        double d4 = tp.x - player.posX;
-                        double d5 = tp.y - player.posY;
-                        double d6 = tp.z - player.posZ;
-
-                        if (d4 * d4 + d5 * d5 + d6 * d6 < tp.range * tp.range)
-                        {
-                            NetworkDispatcher dispatcher = player.playerNetServerHandler.netManager.channel().attr(NetworkDispatcher.FML_DISPATCHER).get();
-                            if (dispatcher != null) builder.add(dispatcher);
-                        }
-                    }
-                }
-                return builder.build();
+                return PlayerTargetIndex.get().aroundPoint((TargetPoint)args);
             }
         },
         /**
@@ -289,4 +252,43 @@ public class FMLOutboundHandler extends ChannelOutboundHandlerAdapter {
         promise.setSuccess();
     }
 
+    /**
+     * Checks that a packet can be sent to the target with {@link #sendDirect}. NOWHERE and REPLY need the
+     * channel the packet travels through, which a direct send doesn't have.
+     *
+     * @throws FMLNetworkException if the target can't be sent to directly from the side
+     */
+    public static void checkDirectTarget(OutboundTarget target, Side side)
+    {
+        if (target == OutboundTarget.NOWHERE || target == OutboundTarget.REPLY)
+        {
+            throw new FMLNetworkException("Target " + target + " can't be sent to directly");
+        }
+        if (!target.allowed.contains(side))
+        {
+            throw new FMLNetworkException("Target " + target + " is not valid on the " + side + " side");
+        }
+    }
+
+    /**
+     * Sends an encoded packet straight to its target, instead of through the target attributes of a
+     * channel which are shared by every sender. Safe to call from any thread, the same packet can be
+     * sent to any number of targets.
+     *
+     * @param pkt The packet to send
+     * @param side The side sending the packet
+     * @param target The target, can't be {@link OutboundTarget#NOWHERE} or {@link OutboundTarget#REPLY}
+     * @param args The argument of the target
+     */
+    public static void sendDirect(FMLProxyPacket pkt, Side side, OutboundTarget target, Object args)
+    {
+        checkDirectTarget(target, side);
+        target.validateArgs(args);
+        List<NetworkDispatcher> dispatchers = target.selectNetworks(args, null, pkt);
+        for (NetworkDispatcher targetDispatcher : dispatchers)
+        {
+            targetDispatcher.sendProxy(pkt);
+        }
+    }
+
 }
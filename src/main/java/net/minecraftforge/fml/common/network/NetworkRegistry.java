@@ -51,6 +51,7 @@ public enum NetworkRegistry
 {
     INSTANCE;
     private EnumMap<Side,Map<String,FMLEmbeddedChannel>> channels = Maps.newEnumMap(Side.class);
+    private Map<String,byte[]> batchedChannels = Maps.newConcurrentMap();
     private Map<ModContainer, NetworkModHolder> registry = Maps.newHashMap();
     private Map<ModContainer, IGuiHandler> serverGuiHandlers = Maps.newHashMap();
     private Map<ModContainer, IGuiHandler> clientGuiHandlers = Maps.newHashMap();
@@ -66,7 +67,8 @@ public enum NetworkRegistry
 
     // Version 1: ServerHello only contains this value as a byte
     // Version 2: ServerHello additionally contains a 4 byte (int) dimension for the logging in client
-    public static final byte FML_PROTOCOL = 2;
+    // Version 3: ClientHello additionally contains the channels the client accepts in batches
+    public static final byte FML_PROTOCOL = 3;
 
     private NetworkRegistry()
     {
@@ -315,6 +317,43 @@ public enum NetworkRegistry
         return channels.get(side).keySet();
     }
 
+    /**
+     * Lets the server batch the messages it sends to a client on this channel. Messages sent during a server tick
+     * are sent together at the end of the tick, as one packet per player and channel, and batches larger than
+     * the fml.batchCompressThreshold system property (256 bytes by default) are compressed. Only channels both
+     * sides enabled during the handshake are batched, so call this on both sides, before anyone connects.
+     *
+     * Batched messages keep their order within the channel, but arrive up to a tick later than they would have
+     * and after any packets sent outside the channel during that tick. Best for frequent, small updates.
+     *
+     * @param channelName The channel
+     * @param dictionary Bytes that often occur in the messages of the channel, used to compress them better.
+     *                   Has to be the same on both sides. May be null.
+     */
+    public void enableBatching(String channelName, byte[] dictionary)
+    {
+        batchedChannels.put(channelName, dictionary == null ? new byte[0] : dictionary.clone());
+    }
+
+    /**
+     * The channels that batching was enabled for
+     */
+    public Set<String> batchedChannels()
+    {
+        return batchedChannels.keySet();
+    }
+
+    /**
+     * The compression dictionary of a batched channel
+     * @param channelName The channel
+     * @return the dictionary, null if the channel has none or is not batched
+     */
+    public byte[] getBatchDictionary(String channelName)
+    {
+        byte[] dictionary = batchedChannels.get(channelName);
+        return dictionary == null || dictionary.length == 0 ? null : dictionary;
+    }
+
     /**
      * INTERNAL fire a handshake to all channels
      * @param networkDispatcher The dispatcher firing
@@ -0,0 +1,192 @@
+package net.minecraftforge.fml.common.network;
+
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.LongHashMap;
+import net.minecraft.util.MathHelper;
+import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.common.network.NetworkRegistry.TargetPoint;
+import net.minecraftforge.fml.common.network.handshake.NetworkDispatcher;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * The players the {@link FMLOutboundHandler.OutboundTarget}s send to, grouped by dimension and by chunk.
+ *
+ * The index is built by the first broadcast after it was invalidated, at the start of every server tick
+ * and whenever a player logs in, logs out, respawns or changes dimension. Players that move during a tick
+ * are still found by {@link #aroundPoint}, as it searches one chunk further than the range and checks the
+ * current position of each player it finds. Players that teleport far may miss broadcasts for the rest
+ * of the tick. Built indexes are never changed, so any thread can use them.
+ */
+public class PlayerTargetIndex
+{
+    private static volatile PlayerTargetIndex current;
+
+    private final ImmutableList<NetworkDispatcher> all;
+    private final Map<Integer, Dimension> dimensions = Maps.newHashMap();
+
+    private PlayerTargetIndex(Object[] players)
+    {
+        ImmutableList.Builder<NetworkDispatcher> builder = ImmutableList.builder();
+        for (Object obj : players)
+        {
+            // Nulls show up if the list changed while it was copied
+            if (obj == null) continue;
+            EntityPlayerMP player = (EntityPlayerMP)obj;
+            NetworkDispatcher dispatcher = player.playerNetServerHandler.netManager.channel().attr(NetworkDispatcher.FML_DISPATCHER).get();
+            // Null dispatchers may exist for fake players - skip them
+            if (dispatcher == null) continue;
+            builder.add(dispatcher);
+            Entry entry = new Entry(player, dispatcher);
+
+            Dimension dimension = dimensions.get(player.dimension);
+            if (dimension == null)
+            {
+                dimension = new Dimension();
+                dimensions.put(player.dimension, dimension);
+            }
+            dimension.add(entry);
+        }
+        all = builder.build();
+    }
+
+    /**
+     * Marks the index as outdated, the next broadcast builds a new one.
+     */
+    public static synchronized void invalidate()
+    {
+        current = null;
+    }
+
+    static PlayerTargetIndex get()
+    {
+        PlayerTargetIndex index = current;
+        return index != null ? index : build();
+    }
+
+    // Synchronized with invalidate so an index built from an old player list is never published after it
+    private static synchronized PlayerTargetIndex build()
+    {
+        if (current == null)
+        {
+            MinecraftServer server = FMLCommonHandler.instance().getMinecraftServerInstance();
+            current = new PlayerTargetIndex(server.getConfigurationManager().playerEntityList.toArray());
+        }
+        return current;
+    }
+
+    List<NetworkDispatcher> all()
+    {
+        return all;
+    }
+
+    List<NetworkDispatcher> inDimension(int dimensionId)
+    {
+        Dimension dimension = dimensions.get(dimensionId);
+        if (dimension == null)
+        {
+            return ImmutableList.of();
+        }
+        ImmutableList.Builder<NetworkDispatcher> builder = ImmutableList.builder();
+        for (Entry entry : dimension.players)
+        {
+            // The player may have left the dimension since the index was built
+            if (entry.player.dimension == dimensionId) builder.add(entry.dispatcher);
+        }
+        return builder.build();
+    }
+
+    List<NetworkDispatcher> aroundPoint(TargetPoint tp)
+    {
+        Dimension dimension = dimensions.get(tp.dimension);
+        if (dimension == null)
+        {
+            return ImmutableList.of();
+        }
+        ImmutableList.Builder<NetworkDispatcher> builder = ImmutableList.builder();
+        int minX = MathHelper.floor_double(tp.x - tp.range) >> 4;
+        int maxX = MathHelper.floor_double(tp.x + tp.range) >> 4;
+        int minZ = MathHelper.floor_double(tp.z - tp.range) >> 4;
+        int maxZ = MathHelper.floor_double(tp.z + tp.range) >> 4;
+        long chunks = (long)(maxX - minX + 3) * (maxZ - minZ + 3);
+        if (chunks > dimension.chunks)
+        {
+            // Large ranges cover more chunks than there are chunks with players, check every player instead
+            for (Entry entry : dimension.players)
+            {
+                entry.addIfInRange(tp, builder);
+            }
+        }
+        else
+        {
+            for (int x = minX - 1; x <= maxX + 1; x++)
+            {
+                for (int z = minZ - 1; z <= maxZ + 1; z++)
+                {
+                    @SuppressWarnings("unchecked")
+                    List<Entry> bucket = (List<Entry>)dimension.byChunk.getValueByKey(ChunkCoordIntPair.chunkXZ2Int(x, z));
+                    if (bucket == null) continue;
+                    for (Entry entry : bucket)
+                    {
+                        entry.addIfInRange(tp, builder);
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static class Dimension
+    {
+        private final List<Entry> players = Lists.newArrayList();
+        private final LongHashMap byChunk = new LongHashMap();
+        private int chunks = 0;
+
+        private void add(Entry entry)
+        {
+            players.add(entry);
+            long key = ChunkCoordIntPair.chunkXZ2Int(MathHelper.floor_double(entry.player.posX) >> 4, MathHelper.floor_double(entry.player.posZ) >> 4);
+            @SuppressWarnings("unchecked")
+            List<Entry> bucket = (List<Entry>)byChunk.getValueByKey(key);
+            if (bucket == null)
+            {
+                bucket = Lists.newArrayListWithCapacity(2);
+                byChunk.add(key, bucket);
+                chunks++;
+            }
+            bucket.add(entry);
+        }
+    }
+
+    private static class Entry
+    {
+        private final EntityPlayerMP player;
+        private final NetworkDispatcher dispatcher;
+
+        private Entry(EntityPlayerMP player, NetworkDispatcher dispatcher)
+        {
+            this.player = player;
+            this.dispatcher = dispatcher;
+        }
+
+        private void addIfInRange(TargetPoint tp, ImmutableList.Builder<NetworkDispatcher> builder)
+        {
+            if (player.dimension != tp.dimension) return;
+            double d4 = tp.x - player.posX;
+            double d5 = tp.y - player.posY;
+            double d6 = tp.z - player.posZ;
+
+            if (d4 * d4 + d5 * d5 + d6 * d6 < tp.range * tp.range)
+            {
+                builder.add(dispatcher);
+            }
+        }
+    }
+}
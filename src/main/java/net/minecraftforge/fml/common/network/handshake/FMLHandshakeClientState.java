@@ -54,13 +54,18 @@ enum FMLHandshakeClientState implements IHandshakeState<FMLHandshakeClientState>
 
             ServerHello serverHelloPacket = (FMLHandshakeMessage.ServerHello)msg;
             FMLLog.info("Server protocol version %x", serverHelloPacket.protocolVersion());
+            NetworkDispatcher dispatcher = ctx.channel().attr(NetworkDispatcher.FML_DISPATCHER).get();
             if (serverHelloPacket.protocolVersion() > 1)
             {
                 // Server sent us an extra dimension for the logging in player - stash it for retrieval later
-                NetworkDispatcher dispatcher = ctx.channel().attr(NetworkDispatcher.FML_DISPATCHER).get();
                 dispatcher.setOverrideDimension(serverHelloPacket.overrideDim());
             }
-            ctx.writeAndFlush(new FMLHandshakeMessage.ClientHello()).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+            if (serverHelloPacket.protocolVersion() > 2)
+            {
+                // Older servers never batch, and don't get the channel list in the hello
+                dispatcher.acceptBatches(NetworkRegistry.INSTANCE.batchedChannels());
+            }
+            ctx.writeAndFlush(new FMLHandshakeMessage.ClientHello(serverHelloPacket.protocolVersion(), NetworkRegistry.INSTANCE.batchedChannels())).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
             ctx.writeAndFlush(new FMLHandshakeMessage.ModList(Loader.instance().getActiveModList())).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
             return WAITINGSERVERDATA;
         }
@@ -26,7 +26,7 @@ import com.google.common.collect.Sets;
 public abstract class FMLHandshakeMessage {
     public static FMLProxyPacket makeCustomChannelRegistration(Set<String> channels)
     {
-        String salutation = Joiner.on('\0').join(Iterables.concat(Arrays.asList("FML|HS","FML", "FML|MP"),channels));
+        String salutation = Joiner.on('\0').join(Iterables.concat(Arrays.asList("FML|HS","FML", "FML|MP", "FML|BT"),channels));
         FMLProxyPacket proxy = new FMLProxyPacket(new PacketBuffer(Unpooled.wrappedBuffer(salutation.getBytes(Charsets.UTF_8))), "REGISTER");
         return proxy;
     }
@@ -76,16 +76,49 @@ public abstract class FMLHandshakeMessage {
     }
     public static class ClientHello extends FMLHandshakeMessage {
         private byte serverProtocolVersion;
+        private Set<String> batchedChannels = Sets.newHashSet();
+        private boolean writeBatchedChannels;
+        public ClientHello()
+        {
+            // noargs for the proto
+        }
+        public ClientHello(byte serverProtocolVersion, Set<String> batchedChannels)
+        {
+            // Older servers don't expect the channel list
+            this.writeBatchedChannels = serverProtocolVersion > 2;
+            this.batchedChannels.addAll(batchedChannels);
+        }
         @Override
         public void toBytes(ByteBuf buffer)
         {
             buffer.writeByte(NetworkRegistry.FML_PROTOCOL);
+            if (writeBatchedChannels)
+            {
+                ByteBufUtils.writeVarInt(buffer, batchedChannels.size(), 2);
+                for (String channel : batchedChannels)
+                {
+                    ByteBufUtils.writeUTF8String(buffer, channel);
+                }
+            }
         }
 
         @Override
         public void fromBytes(ByteBuf buffer)
         {
             serverProtocolVersion = buffer.readByte();
+            if (serverProtocolVersion > 2)
+            {
+                int count = ByteBufUtils.readVarInt(buffer, 2);
+                for (int i = 0; i < count; i++)
+                {
+                    batchedChannels.add(ByteBufUtils.readUTF8String(buffer));
+                }
+            }
+        }
+
+        public Set<String> batchedChannels()
+        {
+            return batchedChannels;
         }
 
         public byte protocolVersion()
@@ -36,7 +36,13 @@ enum FMLHandshakeServerState implements IHandshakeState<FMLHandshakeServerState>
             // Hello packet first
             if (msg instanceof FMLHandshakeMessage.ClientHello)
             {
-                FMLLog.info("Client protocol version %x", ((FMLHandshakeMessage.ClientHello)msg).protocolVersion());
+                FMLHandshakeMessage.ClientHello hello = (FMLHandshakeMessage.ClientHello)msg;
+                FMLLog.info("Client protocol version %x", hello.protocolVersion());
+                // Batching saves bandwidth, there is none to save on a local connection
+                if (!ctx.channel().attr(NetworkDispatcher.IS_LOCAL).get())
+                {
+                    ctx.channel().attr(NetworkDispatcher.FML_DISPATCHER).get().enableBatching(hello.batchedChannels());
+                }
                 return this;
             }
 
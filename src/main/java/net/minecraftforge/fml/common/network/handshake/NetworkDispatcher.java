@@ -1,5 +1,6 @@
 package net.minecraftforge.fml.common.network.handshake;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOutboundHandler;
@@ -14,9 +15,14 @@ import java.io.IOException;
 import java.net.SocketAddress;
 import java.nio.channels.ClosedChannelException;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.logging.log4j.Level;
 
@@ -44,6 +50,7 @@ import net.minecraftforge.fml.common.network.PacketLoggingHandler;
 import net.minecraftforge.fml.common.network.internal.FMLMessage;
 import net.minecraftforge.fml.common.network.internal.FMLNetworkHandler;
 import net.minecraftforge.fml.common.network.internal.FMLProxyPacket;
+import net.minecraftforge.fml.common.network.internal.PayloadBatch;
 import net.minecraftforge.fml.common.registry.GameData;
 import net.minecraftforge.fml.relauncher.Side;
 
@@ -90,6 +97,9 @@ public class NetworkDispatcher extends SimpleChannelInboundHandler<Packet> imple
     private INetHandler netHandler;
     private Map<String,String> modList;
     private int overrideLoginDim;
+    private volatile Map<String,PayloadBatch> batches = Collections.emptyMap();
+    private volatile Set<String> acceptedBatches = Collections.emptySet();
+    private static final Set<NetworkDispatcher> pendingBatches = Collections.newSetFromMap(new ConcurrentHashMap<NetworkDispatcher,Boolean>());
 
     public NetworkDispatcher(NetworkManager manager)
     {
@@ -353,6 +363,28 @@ public class NetworkDispatcher extends SimpleChannelInboundHandler<Packet> imple
                 return true; // Haven't received all so return till we have.
             }
         }
+        if (PayloadBatch.CHANNEL.equals(channelName))
+        {
+            try
+            {
+                List<FMLProxyPacket> proxies = PayloadBatch.unpack(msg.getBufferData(), acceptedBatches);
+                if (!proxies.isEmpty() && !NetworkRegistry.INSTANCE.hasChannel(proxies.get(0).channel(), Side.CLIENT))
+                {
+                    throw new IOException("Received FML batch for unknown channel " + proxies.get(0).channel());
+                }
+                for (FMLProxyPacket proxy : proxies)
+                {
+                    proxy.setTarget(Side.CLIENT);
+                    proxy.setDispatcher(this);
+                    context.fireChannelRead(proxy);
+                }
+            }
+            catch (IOException e)
+            {
+                this.kickWithMessage(e.getMessage());
+            }
+            return true;
+        }
         if ("FML|HS".equals(channelName) || "REGISTER".equals(channelName) || "UNREGISTER".equals(channelName))
         {
             FMLProxyPacket proxy = new FMLProxyPacket(msg);
@@ -423,9 +455,93 @@ public class NetworkDispatcher extends SimpleChannelInboundHandler<Packet> imple
 
     public void sendProxy(FMLProxyPacket msg)
     {
+        PayloadBatch batch = batches.get(msg.channel());
+        if (batch != null)
+        {
+            synchronized (batch)
+            {
+                if (batch.add(msg.payload()))
+                {
+                    pendingBatches.add(this);
+                    return;
+                }
+                // Too big for the batch, send what is batched first to keep the order
+                sendBatch(batch);
+                if (batch.add(msg.payload()))
+                {
+                    pendingBatches.add(this);
+                    return;
+                }
+                manager.sendPacket(msg);
+                return;
+            }
+        }
         manager.sendPacket(msg);
     }
 
+    /**
+     * INTERNAL accept batches from the server on the channels this client listed in its hello, batches
+     * on other channels are rejected
+     * @param channels The channels from the client hello
+     */
+    void acceptBatches(Set<String> channels)
+    {
+        acceptedBatches = Collections.unmodifiableSet(new HashSet<String>(channels));
+    }
+
+    /**
+     * INTERNAL batch the channels the client accepts in batches, if this side enabled them too
+     * @param channels The channels from the client hello
+     */
+    void enableBatching(Set<String> channels)
+    {
+        Map<String,PayloadBatch> enabled = new HashMap<String,PayloadBatch>();
+        for (String channel : channels)
+        {
+            if (NetworkRegistry.INSTANCE.batchedChannels().contains(channel))
+            {
+                enabled.put(channel, new PayloadBatch(channel, NetworkRegistry.INSTANCE.getBatchDictionary(channel)));
+            }
+        }
+        if (!enabled.isEmpty())
+        {
+            FMLLog.fine("Batching %d channels for this connection", enabled.size());
+            batches = enabled;
+        }
+    }
+
+    /**
+     * INTERNAL send the messages batched during this tick, called at the end of every server tick
+     */
+    public static void flushBatches()
+    {
+        for (Iterator<NetworkDispatcher> itr = pendingBatches.iterator(); itr.hasNext();)
+        {
+            NetworkDispatcher dispatcher = itr.next();
+            itr.remove();
+            for (PayloadBatch batch : dispatcher.batches.values())
+            {
+                synchronized (batch)
+                {
+                    dispatcher.sendBatch(batch);
+                }
+            }
+        }
+    }
+
+    private void sendBatch(PayloadBatch batch)
+    {
+        if (batch.isEmpty()) return;
+        try
+        {
+            manager.sendPacket(batch.pack());
+        }
+        catch (IOException e)
+        {
+            FMLLog.log(Level.ERROR, e, "Failed to send a batch of messages");
+        }
+    }
+
     public void rejectHandshake(String result)
     {
         kickWithMessage(result);
@@ -578,39 +694,60 @@ public class NetworkDispatcher extends SimpleChannelInboundHandler<Packet> imple
         return this.overrideLoginDim != 0 ? this.overrideLoginDim : packetIn.getDimension();
     }
 
-    private class MultiPartCustomPayload extends S3FPacketCustomPayload
+    /**
+     * Reassembles a payload the server split with {@link FMLProxyPacket#toS3FPackets()}. Package visible for tests.
+     */
+    static class MultiPartCustomPayload extends S3FPacketCustomPayload
     {
         private String channel;
-        private byte[] data;
+        private ByteBuf[] parts;
         private PacketBuffer data_buf = null;
         private int part_count = 0;
         private int part_expected = 0;
+        private int length = 0;
         private int offset = 0;
 
-        private MultiPartCustomPayload(PacketBuffer preamble) throws IOException
+        MultiPartCustomPayload(PacketBuffer preamble) throws IOException
         {
             channel = preamble.readStringFromBuffer(20);
             part_count = preamble.readUnsignedByte();
-            int length = preamble.readInt();
+            length = preamble.readInt();
             if (length <= 0 || length >= FMLProxyPacket.MAX_LENGTH)
             {
                 throw new IOException("The received FML MultiPart packet outside of valid length bounds, Max: " + FMLProxyPacket.MAX_LENGTH + ", Received: " + length);
             }
-            data = new byte[length];
-            data_buf = new PacketBuffer(Unpooled.wrappedBuffer(data));
+            if (part_count == 0)
+            {
+                throw new IOException("The received FML MultiPart packet has no parts");
+            }
+            parts = new ByteBuf[part_count];
         }
 
         public void processPart(PacketBuffer input) throws IOException
         {
-            int part = (int)(input.readByte() & 0xFF);
+            // Read without moving the reader index, a local connection hands us the buffer the server sent
+            int part = (int)(input.getByte(input.readerIndex()) & 0xFF);
             if (part != part_expected)
             {
                 throw new IOException("Received FML MultiPart packet out of order, Expected " + part_expected + " Got " + part);
             }
             int len = input.readableBytes() - 1;
-            input.readBytes(data, offset, len);
+            if (offset + len > length)
+            {
+                throw new IOException("Received FML MultiPart packet longer than announced, Expected " + length + " Got " + (offset + len));
+            }
+            parts[part] = input.slice(input.readerIndex() + 1, len);
             part_expected++;
             offset += len;
+            if (isComplete())
+            {
+                if (offset != length)
+                {
+                    throw new IOException("Received FML MultiPart packet shorter than announced, Expected " + length + " Got " + offset);
+                }
+                data_buf = new PacketBuffer(Unpooled.wrappedBuffer(parts.length, parts));
+                parts = null;
+            }
         }
 
         public boolean isComplete()
@@ -23,6 +23,7 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.helpers.Integers;
 
 import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Multiset.Entry;
@@ -34,6 +35,7 @@ public class FMLProxyPacket implements Packet {
     private final PacketBuffer payload;
     private INetHandler netHandler;
     private NetworkDispatcher dispatcher;
+    private List<Packet> s3fPackets;
     private static Multiset<String> badPackets = ConcurrentHashMultiset.create();
     private static int packetCountWarning = Integers.parseInt(System.getProperty("fml.badPacketCounter", "100"), 100);
 
@@ -124,18 +126,31 @@ public class FMLProxyPacket implements Packet {
 
     static final int PART_SIZE = 0x1000000 - 0x50; // Make it a constant so that it gets inlined below.
     public static final int MAX_LENGTH = PART_SIZE * 255;
-    public List<Packet> toS3FPackets() throws IOException
+    /**
+     * The packets to send this to a client. They are built once and shared by every client the packet is sent
+     * to, {@link S3FPacketCustomPayload} resets its buffer after writing it so many connections can write it.
+     */
+    public synchronized List<Packet> toS3FPackets() throws IOException
+    {
+        if (s3fPackets == null)
+        {
+            s3fPackets = ImmutableList.copyOf(buildS3FPackets());
+        }
+        return s3fPackets;
+    }
+
+    private List<Packet> buildS3FPackets() throws IOException
     {
         List<Packet> ret = Lists.newArrayList();
-        byte[] data = payload.array();
+        int length = payload.readableBytes();
 
-        if (data.length < PART_SIZE)
+        if (length < PART_SIZE)
         {
             ret.add(new S3FPacketCustomPayload(channel, payload));
         }
         else
         {
-            int parts = (int)Math.ceil(data.length / (double)(PART_SIZE - 1)); //We add a byte header so -1
+            int parts = (int)Math.ceil(length / (double)(PART_SIZE - 1)); //We add a byte header so -1
             if (parts > 255)
             {
                 throw new IllegalArgumentException("Payload may not be larger than " + MAX_LENGTH + " bytes");
@@ -143,18 +158,18 @@ public class FMLProxyPacket implements Packet {
             PacketBuffer preamble = new PacketBuffer(Unpooled.buffer());
             preamble.writeString(channel);
             preamble.writeByte(parts);
-            preamble.writeInt(data.length);
+            preamble.writeInt(length);
             ret.add(new S3FPacketCustomPayload("FML|MP", preamble));
 
-            int offset = 0;
+            // Each part is its header byte and a slice of the payload, nothing is copied
+            int offset = payload.readerIndex();
+            int end = offset + length;
             for (int x = 0; x < parts; x++)
             {
-                int length = Math.min(PART_SIZE, data.length - offset + 1);
-                byte[] tmp = new byte[length];
-                tmp[0] = (byte)(x & 0xFF);
-                System.arraycopy(data, offset, tmp, 1, tmp.length - 1);
-                offset += tmp.length - 1;
-                ret.add(new S3FPacketCustomPayload("FML|MP", new PacketBuffer(Unpooled.wrappedBuffer(tmp))));
+                int partLength = Math.min(PART_SIZE - 1, end - offset);
+                ByteBuf header = Unpooled.wrappedBuffer(new byte[] { (byte)(x & 0xFF) });
+                ret.add(new S3FPacketCustomPayload("FML|MP", new PacketBuffer(Unpooled.wrappedBuffer(header, payload.slice(offset, partLength)))));
+                offset += partLength;
             }
         }
         return ret;
@@ -0,0 +1,265 @@
+package net.minecraftforge.fml.common.network.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.network.NetworkRegistry;
+
+import org.apache.logging.log4j.core.helpers.Integers;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+
+/**
+ * The messages of one batched channel waiting to be sent to one client, see
+ * {@link NetworkRegistry#enableBatching(String, byte[])}.
+ *
+ * A batch is sent on the FML|BT channel as the name of the batched channel, a flags byte and the messages,
+ * each prefixed with its length. If the messages are compressed the flags byte is 1 and they are preceded
+ * by their uncompressed length.
+ */
+public class PayloadBatch {
+    public static final String CHANNEL = "FML|BT";
+    // Well below the 1MB limit of a custom payload packet
+    public static final int MAX_SIZE = 0x80000;
+    private static final int COMPRESS_THRESHOLD = Integers.parseInt(System.getProperty("fml.batchCompressThreshold", "256"), 256);
+    private static final AtomicLong messages = new AtomicLong();
+    private static final AtomicLong batches = new AtomicLong();
+    private static final AtomicLong unbatchedBytes = new AtomicLong();
+    private static final AtomicLong batchedBytes = new AtomicLong();
+
+    private final String channel;
+    private final byte[] dictionary;
+    private ByteBuf body = Unpooled.buffer();
+    private int count = 0;
+
+    public PayloadBatch(String channel, byte[] dictionary)
+    {
+        this.channel = channel;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Adds a copy of the payload to the batch. The payload itself is not changed.
+     *
+     * @return false if the payload doesn't fit, send the batch first, or the payload on its own if it is empty
+     */
+    public synchronized boolean add(ByteBuf payload)
+    {
+        int length = payload.readableBytes();
+        if (body.readableBytes() + length + 5 > MAX_SIZE)
+        {
+            return false;
+        }
+        ByteBufUtils.writeVarInt(body, length, 5);
+        body.writeBytes(payload, payload.readerIndex(), length);
+        count++;
+        return true;
+    }
+
+    public synchronized boolean isEmpty()
+    {
+        return count == 0;
+    }
+
+    /**
+     * Takes the messages out of the batch.
+     *
+     * @return the packet carrying the messages
+     */
+    public synchronized FMLProxyPacket pack() throws IOException
+    {
+        PacketBuffer frame = new PacketBuffer(Unpooled.buffer(body.readableBytes() + channel.length() + 8));
+        frame.writeString(channel);
+        int length = body.readableBytes();
+        byte[] compressed = length >= COMPRESS_THRESHOLD ? compress(body, dictionary) : null;
+        if (compressed != null && compressed.length + ByteBufUtils.varIntByteCount(length) < length)
+        {
+            frame.writeByte(1);
+            ByteBufUtils.writeVarInt(frame, length, 5);
+            frame.writeBytes(compressed);
+        }
+        else
+        {
+            frame.writeByte(0);
+            frame.writeBytes(body);
+        }
+
+        // Every message would have been a custom payload packet of its own, with the channel name and a packet id
+        int overhead = channel.getBytes(Charsets.UTF_8).length + 2;
+        messages.addAndGet(count);
+        batches.incrementAndGet();
+        unbatchedBytes.addAndGet(length + count * overhead);
+        batchedBytes.addAndGet(frame.readableBytes() + CHANNEL.length() + 2);
+
+        body = length > MAX_SIZE / 8 ? Unpooled.buffer() : body.clear();
+        count = 0;
+        return new FMLProxyPacket(frame, CHANNEL);
+    }
+
+    /**
+     * Reads the messages of a batch.
+     *
+     * @param frame The payload of the FML|BT packet
+     * @param accepted The channels batches are accepted on, batches on other channels are rejected before anything is decompressed
+     * @return a packet for each message, in the order they were sent
+     */
+    public static List<FMLProxyPacket> unpack(PacketBuffer frame, Set<String> accepted) throws IOException
+    {
+        String channel = frame.readStringFromBuffer(20);
+        if (!accepted.contains(channel))
+        {
+            throw new IOException("Received FML batch for channel " + channel + " which was not negotiated");
+        }
+        byte flags = frame.readByte();
+        ByteBuf body = frame;
+        if ((flags & 1) != 0)
+        {
+            int length = ByteBufUtils.readVarInt(frame, 5);
+            if (length <= 0 || length > MAX_SIZE)
+            {
+                throw new IOException("The received FML batch is outside of valid length bounds, Max: " + MAX_SIZE + ", Received: " + length);
+            }
+            body = Unpooled.wrappedBuffer(decompress(frame, length, NetworkRegistry.INSTANCE.getBatchDictionary(channel)));
+        }
+
+        List<FMLProxyPacket> ret = Lists.newArrayList();
+        while (body.isReadable())
+        {
+            int length = ByteBufUtils.readVarInt(body, 5);
+            if (length > body.readableBytes())
+            {
+                throw new IOException("The received FML batch for " + channel + " is truncated");
+            }
+            ret.add(new FMLProxyPacket(new PacketBuffer(body.readSlice(length)), channel));
+        }
+        return ret;
+    }
+
+    private static byte[] compress(ByteBuf body, byte[] dictionary)
+    {
+        byte[] input = new byte[body.readableBytes()];
+        body.getBytes(body.readerIndex(), input);
+        Deflater deflater = new Deflater();
+        try
+        {
+            if (dictionary != null)
+            {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(input);
+            deflater.finish();
+            byte[] output = new byte[input.length];
+            int length = 0;
+            while (!deflater.finished() && length < output.length)
+            {
+                length += deflater.deflate(output, length, output.length - length);
+            }
+            // Didn't fit in the size of the input, not worth it
+            if (!deflater.finished()) return null;
+            byte[] ret = new byte[length];
+            System.arraycopy(output, 0, ret, 0, length);
+            return ret;
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(ByteBuf frame, int length, byte[] dictionary) throws IOException
+    {
+        byte[] input = new byte[frame.readableBytes()];
+        frame.readBytes(input);
+        Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(input);
+            byte[] output = new byte[length];
+            int read = 0;
+            while (read < length)
+            {
+                int n = inflater.inflate(output, read, length - read);
+                if (n == 0)
+                {
+                    if (inflater.needsDictionary() && dictionary != null)
+                    {
+                        inflater.setDictionary(dictionary);
+                    }
+                    else
+                    {
+                        break;
+                    }
+                }
+                read += n;
+            }
+            if (read != length)
+            {
+                throw new IOException("The received FML batch did not decompress to its announced length " + length);
+            }
+            return output;
+        }
+        catch (DataFormatException e)
+        {
+            throw new IOException("The received FML batch is corrupt", e);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IOException("The received FML batch was compressed with another dictionary", e);
+        }
+        finally
+        {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Logs how many messages were batched and the bytes it saved since the server started, and starts counting
+     * again for the next one. Called when the server stops.
+     */
+    public static void logStats()
+    {
+        long messageCount = messages.getAndSet(0);
+        long batchCount = batches.getAndSet(0);
+        long saved = unbatchedBytes.getAndSet(0) - batchedBytes.getAndSet(0);
+        if (batchCount > 0)
+        {
+            FMLLog.info("Sent %d messages in %d batches, batching saved about %d bytes", messageCount, batchCount, saved);
+        }
+    }
+
+    /**
+     * @return the number of messages sent in batches
+     */
+    public static long getMessageCount()
+    {
+        return messages.get();
+    }
+
+    /**
+     * @return the number of batches sent
+     */
+    public static long getBatchCount()
+    {
+        return batches.get();
+    }
+
+    /**
+     * @return the bytes batching saved, estimated from the size of the custom payload packets the messages would have been sent in
+     */
+    public static long getBytesSaved()
+    {
+        return unbatchedBytes.get() - batchedBytes.get();
+    }
+}
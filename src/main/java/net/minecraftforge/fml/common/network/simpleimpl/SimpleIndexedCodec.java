@@ -1,6 +1,7 @@
 package net.minecraftforge.fml.common.network.simpleimpl;
 
 import net.minecraftforge.fml.common.network.FMLIndexedMessageToMessageCodec;
+import net.minecraftforge.fml.common.network.internal.FMLProxyPacket;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 
@@ -17,4 +18,18 @@ public class SimpleIndexedCodec extends FMLIndexedMessageToMessageCodec<IMessage
         msg.fromBytes(source);
     }
 
+    /**
+     * Encodes a message into a packet for the channel without going through a channel pipeline, so it
+     * can be called from any thread. {@link IMessage#toBytes} never sees the context, so unlike other
+     * codecs this one doesn't need a channel to encode.
+     *
+     * @param msg The message to encode
+     * @param channel The name of the channel the packet is for
+     * @return The packet, ready to be sent to any number of targets
+     */
+    public FMLProxyPacket encodeDirect(IMessage msg, String channel) throws Exception
+    {
+        return encodeProxy(null, msg, channel);
+    }
+
 }
@@ -1,7 +1,5 @@
 package net.minecraftforge.fml.common.network.simpleimpl;
 
-import io.netty.channel.ChannelFutureListener;
-
 import java.util.EnumMap;
 
 import com.google.common.base.Throwables;
@@ -15,6 +13,7 @@ import net.minecraftforge.fml.common.network.FMLEmbeddedChannel;
 import net.minecraftforge.fml.common.network.FMLOutboundHandler;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
 import net.minecraftforge.fml.common.network.NetworkRegistry.TargetPoint;
+import net.minecraftforge.fml.common.network.internal.FMLProxyPacket;
 import net.minecraftforge.fml.relauncher.Side;
 
 /**
@@ -85,9 +84,11 @@ import net.minecraftforge.fml.relauncher.Side;
 public class SimpleNetworkWrapper {
     private EnumMap<Side, FMLEmbeddedChannel> channels;
     private SimpleIndexedCodec packetCodec;
+    private final String channelName;
 
     public SimpleNetworkWrapper(String channelName)
     {
+        this.channelName = channelName;
         packetCodec = new SimpleIndexedCodec();
         channels = NetworkRegistry.INSTANCE.newChannel(channelName, packetCodec);
     }
@@ -158,6 +159,17 @@ public class SimpleNetworkWrapper {
         return new SimpleChannelHandlerWrapper<REQ, REPLY>(messageHandler, side, requestType);
     }
 
+    /**
+     * Lets the server batch the messages of this wrapper, see {@link NetworkRegistry#enableBatching(String, byte[])}.
+     * Call this on both sides.
+     *
+     * @param dictionary Bytes that often occur in the messages, used to compress them better. May be null.
+     */
+    public void enableBatching(byte[] dictionary)
+    {
+        NetworkRegistry.INSTANCE.enableBatching(channelName, dictionary);
+    }
+
     /**
      * Construct a minecraft packet from the supplied message. Can be used where minecraft packets are required, such as
      * {@link TileEntity#func_145844_m}.
@@ -170,6 +182,31 @@ public class SimpleNetworkWrapper {
         return channels.get(Side.SERVER).generatePacketFrom(message);
     }
 
+    /**
+     * Encodes the message once and sends it to the target. The target travels with the message instead of
+     * being set on the channel, so this is safe to call from any thread, as are the other send methods.
+     *
+     * @param message The message to send
+     * @param target Where to send it, see {@link FMLOutboundHandler.OutboundTarget}. Can't be NOWHERE or REPLY,
+     *     return the reply from the {@link IMessageHandler} instead
+     * @param args The argument of the target, such as the player or the {@link TargetPoint}
+     */
+    public void send(IMessage message, FMLOutboundHandler.OutboundTarget target, Object args)
+    {
+        Side side = target == FMLOutboundHandler.OutboundTarget.TOSERVER ? Side.CLIENT : Side.SERVER;
+        FMLOutboundHandler.checkDirectTarget(target, side);
+        FMLProxyPacket packet;
+        try
+        {
+            packet = packetCodec.encodeDirect(message, channelName);
+        }
+        catch (Exception e)
+        {
+            throw Throwables.propagate(e);
+        }
+        FMLOutboundHandler.sendDirect(packet, side, target, args);
+    }
+
     /**
      * Send this message to everyone.
      * The {@link IMessageHandler} for this message type should be on the CLIENT side.
@@ -178,8 +215,7 @@ public class SimpleNetworkWrapper {
      */
     public void sendToAll(IMessage message)
     {
-        channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.ALL);
-        channels.get(Side.SERVER).writeAndFlush(message).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+        send(message, FMLOutboundHandler.OutboundTarget.ALL, null);
     }
 
     /**
@@ -191,9 +227,7 @@ public class SimpleNetworkWrapper {
      */
     public void sendTo(IMessage message, EntityPlayerMP player)
     {
-        channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.PLAYER);
-        channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGETARGS).set(player);
-        channels.get(Side.SERVER).writeAndFlush(message).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+        send(message, FMLOutboundHandler.OutboundTarget.PLAYER, player);
     }
 
     /**
@@ -205,9 +239,7 @@ public class SimpleNetworkWrapper {
      */
     public void sendToAllAround(IMessage message, NetworkRegistry.TargetPoint point)
     {
-        channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.ALLAROUNDPOINT);
-        channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGETARGS).set(point);
-        channels.get(Side.SERVER).writeAndFlush(message).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+        send(message, FMLOutboundHandler.OutboundTarget.ALLAROUNDPOINT, point);
     }
 
     /**
@@ -219,9 +251,7 @@ public class SimpleNetworkWrapper {
      */
     public void sendToDimension(IMessage message, int dimensionId)
     {
-        channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.DIMENSION);
-        channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGETARGS).set(dimensionId);
-        channels.get(Side.SERVER).writeAndFlush(message).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+        send(message, FMLOutboundHandler.OutboundTarget.DIMENSION, dimensionId);
     }
 
     /**
@@ -232,7 +262,6 @@ public class SimpleNetworkWrapper {
      */
     public void sendToServer(IMessage message)
     {
-        channels.get(Side.CLIENT).attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.TOSERVER);
-        channels.get(Side.CLIENT).writeAndFlush(message).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+        send(message, FMLOutboundHandler.OutboundTarget.TOSERVER, null);
     }
 }
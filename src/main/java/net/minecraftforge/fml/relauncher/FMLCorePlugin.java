@@ -19,6 +19,11 @@ public class FMLCorePlugin implements IFMLLoadingPlugin
     @Override
     public String[] getASMTransformerClass()
     {
+        if (Boolean.getBoolean("fml.sharedClassNode"))
+        {
+            // The same transformers, sharing one parsed class
+            return new String[] { "net.minecraftforge.fml.common.asm.transformers.FMLClassNodeTransformer" };
+        }
         return new String[] {
                              "net.minecraftforge.fml.common.asm.transformers.BlamingTransformer",
                              "net.minecraftforge.fml.common.asm.transformers.SideTransformer",
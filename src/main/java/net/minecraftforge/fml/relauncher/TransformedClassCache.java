@@ -0,0 +1,406 @@
+/*
+ * Forge Mod Loader
+ * Copyright (c) 2012-2013 cpw.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * Contributors:
+ *     cpw - implementation
+ */
+
+package net.minecraftforge.fml.relauncher;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.launchwrapper.IClassTransformer;
+import net.minecraft.launchwrapper.Launch;
+import net.minecraft.launchwrapper.LaunchClassLoader;
+
+import org.apache.logging.log4j.Level;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Keeps the bytes the transformer chain produced for every class on disk, so later launches with the same
+ * chain can define the class without running the transformers again.
+ *
+ * Enabled with -Dfml.classCache=true. Once every tweaker has registered its transformers the cache takes
+ * their place in the {@link LaunchClassLoader} and runs them itself, transformers registered later run
+ * after it as usual. Entries are keyed by the SHA-1 of the class name and its untransformed bytes. They are
+ * kept in a file named after a fingerprint of everything else the result depends on: the transformers, the
+ * side, every jar on the launch class path, every file in the mods directories and every file in the config
+ * directory, which coremods and access transformers may read. Changing any of them
+ * starts a new file and the old one is deleted. The file is only ever appended to, a record cut short by a
+ * crash is dropped the next time it is opened.
+ *
+ * Transformers that remember something about the classes they see don't see cached classes, which is why
+ * the cache is off by default. It is always off in a development environment, where classes are loaded
+ * from directories.
+ */
+public class TransformedClassCache implements IClassTransformer
+{
+    private static final int MAGIC = 0x464D4C54; // FMLT
+    private static final int VERSION = 1;
+    private static final int HEADER = 8;
+    private static TransformedClassCache instance;
+
+    private final List<IClassTransformer> transformers;
+    private final RandomAccessFile file;
+    // offset and length of each class in the file
+    private final Map<HashCode, long[]> index = Maps.newHashMap();
+    private long end;
+    private volatile boolean broken = false;
+    private int hits = 0;
+    private int misses = 0;
+    private long hitNanos = 0;
+    private long missNanos = 0;
+
+    public TransformedClassCache(File path, List<IClassTransformer> transformers) throws IOException
+    {
+        this.transformers = ImmutableList.copyOf(transformers);
+        this.end = scan(path);
+        this.file = new RandomAccessFile(path, "rw");
+        if (end == 0)
+        {
+            file.setLength(0);
+            file.writeInt(MAGIC);
+            file.writeInt(VERSION);
+            end = HEADER;
+        }
+        else
+        {
+            // Drops whatever was being written when the last launch stopped
+            file.setLength(end);
+        }
+    }
+
+    /**
+     * Reads the keys of the stored classes.
+     *
+     * @return the end of the last complete record, 0 if the file has to be started over
+     */
+    private long scan(File path) throws IOException
+    {
+        if (path.length() < HEADER)
+        {
+            return 0;
+        }
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)));
+        try
+        {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+            {
+                return 0;
+            }
+            long valid = HEADER;
+            byte[] key = new byte[20];
+            while (true)
+            {
+                try
+                {
+                    in.readFully(key);
+                    int length = in.readInt();
+                    long offset = valid + key.length + 4;
+                    if (length < 0 || offset + length > path.length())
+                    {
+                        break;
+                    }
+                    ByteStreams.skipFully(in, length);
+                    index.put(HashCode.fromBytes(key.clone()), new long[] { offset, length });
+                    valid = offset + length;
+                }
+                catch (EOFException e)
+                {
+                    break;
+                }
+            }
+            return valid;
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    @Override
+    public byte[] transform(String name, String transformedName, byte[] bytes)
+    {
+        if (bytes == null || broken)
+        {
+            return runTransformers(name, transformedName, bytes);
+        }
+
+        long start = System.nanoTime();
+        HashCode key = Hashing.sha1().newHasher()
+                .putString(name, Charsets.UTF_8).putByte((byte)0)
+                .putString(transformedName, Charsets.UTF_8).putByte((byte)0)
+                .putBytes(bytes).hash();
+        byte[] cached = read(key);
+        if (cached != null)
+        {
+            count(true, System.nanoTime() - start);
+            return cached;
+        }
+
+        byte[] ret = runTransformers(name, transformedName, bytes);
+        if (ret != null)
+        {
+            write(key, ret);
+        }
+        count(false, System.nanoTime() - start);
+        return ret;
+    }
+
+    private byte[] runTransformers(String name, String transformedName, byte[] bytes)
+    {
+        for (IClassTransformer transformer : transformers)
+        {
+            bytes = transformer.transform(name, transformedName, bytes);
+        }
+        return bytes;
+    }
+
+    private synchronized byte[] read(HashCode key)
+    {
+        long[] entry = index.get(key);
+        if (entry == null || broken)
+        {
+            return null;
+        }
+        try
+        {
+            byte[] ret = new byte[(int)entry[1]];
+            file.seek(entry[0]);
+            file.readFully(ret);
+            return ret;
+        }
+        catch (IOException e)
+        {
+            fail(e);
+            return null;
+        }
+    }
+
+    private synchronized void write(HashCode key, byte[] bytes)
+    {
+        if (broken || index.containsKey(key))
+        {
+            return;
+        }
+        try
+        {
+            byte[] record = new byte[20 + 4 + bytes.length];
+            key.writeBytesTo(record, 0, 20);
+            record[20] = (byte)(bytes.length >>> 24);
+            record[21] = (byte)(bytes.length >>> 16);
+            record[22] = (byte)(bytes.length >>> 8);
+            record[23] = (byte)bytes.length;
+            System.arraycopy(bytes, 0, record, 24, bytes.length);
+            file.seek(end);
+            file.write(record);
+            index.put(key, new long[] { end + 24, bytes.length });
+            end += record.length;
+        }
+        catch (IOException e)
+        {
+            fail(e);
+        }
+    }
+
+    private void fail(IOException e)
+    {
+        FMLRelaunchLog.log(Level.ERROR, e, "The transformed class cache failed, classes will be transformed as usual");
+        broken = true;
+    }
+
+    private synchronized void count(boolean hit, long nanos)
+    {
+        if (hit)
+        {
+            hits++;
+            hitNanos += nanos;
+        }
+        else
+        {
+            misses++;
+            missNanos += nanos;
+        }
+    }
+
+    public List<IClassTransformer> getTransformers()
+    {
+        return transformers;
+    }
+
+    public synchronized void close() throws IOException
+    {
+        broken = true;
+        file.close();
+    }
+
+    public synchronized String getStatistics()
+    {
+        return String.format("%d classes from the cache in %.3fs, %d classes transformed in %.3fs", hits, hitNanos / 1.0E9D, misses, missNanos / 1.0E9D);
+    }
+
+    /**
+     * @return the cache the class loader uses, null if it is off
+     */
+    public static TransformedClassCache getInstance()
+    {
+        return instance;
+    }
+
+    /**
+     * Puts the cache in place of the transformers registered so far, if it is enabled.
+     */
+    public static void install(LaunchClassLoader classLoader)
+    {
+        if (!Boolean.getBoolean("fml.classCache"))
+        {
+            return;
+        }
+        List<IClassTransformer> transformers = ReflectionHelper.getPrivateValue(LaunchClassLoader.class, classLoader, "transformers");
+        String fingerprint = fingerprint(classLoader, transformers);
+        if (fingerprint == null)
+        {
+            FMLRelaunchLog.info("Not using the transformed class cache, classes are loaded from directories");
+            return;
+        }
+
+        File dir = new File(Launch.minecraftHome, "classcache");
+        File path = new File(dir, fingerprint + ".bin");
+        File[] old = dir.listFiles();
+        if (old != null)
+        {
+            for (File file : old)
+            {
+                if (!file.equals(path) && file.getName().endsWith(".bin"))
+                {
+                    FMLRelaunchLog.fine("Deleting the outdated transformed class cache %s", file.getName());
+                    file.delete();
+                }
+            }
+        }
+        dir.mkdirs();
+
+        try
+        {
+            instance = new TransformedClassCache(path, transformers);
+        }
+        catch (IOException e)
+        {
+            FMLRelaunchLog.log(Level.ERROR, e, "Unable to open the transformed class cache %s", path);
+            return;
+        }
+        FMLRelaunchLog.info("Using the transformed class cache %s with %d classes for %d transformers", path.getName(), instance.index.size(), transformers.size());
+        transformers.clear();
+        transformers.add(instance);
+    }
+
+    private static String fingerprint(LaunchClassLoader classLoader, List<IClassTransformer> transformers)
+    {
+        Hasher hasher = Hashing.sha1().newHasher();
+        hasher.putInt(VERSION);
+        hasher.putString(FMLLaunchHandler.side().name(), Charsets.UTF_8);
+        for (IClassTransformer transformer : transformers)
+        {
+            // The generated wrappers of coremod transformers are named after the class they wrap
+            hasher.putString(transformer.getClass().getName(), Charsets.UTF_8);
+        }
+        for (URL url : classLoader.getSources())
+        {
+            if (!"file".equals(url.getProtocol()))
+            {
+                continue;
+            }
+            File file;
+            try
+            {
+                file = new File(url.toURI());
+            }
+            catch (URISyntaxException e)
+            {
+                file = new File(url.getPath());
+            }
+            if (file.isDirectory())
+            {
+                return null;
+            }
+            putFile(hasher, file);
+        }
+        File mods = new File(Launch.minecraftHome, "mods");
+        putFiles(hasher, mods);
+        putFiles(hasher, new File(mods, FMLInjectionData.mccversion));
+        for (File file : ModListHelper.additionalMods.values())
+        {
+            putFile(hasher, file);
+        }
+        putTree(hasher, new File(Launch.minecraftHome, "config"));
+        return hasher.hash().toString();
+    }
+
+    private static void putTree(Hasher hasher, File dir)
+    {
+        File[] files = dir.listFiles();
+        if (files == null)
+        {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files)
+        {
+            if (file.isDirectory())
+            {
+                putTree(hasher, file);
+            }
+            else
+            {
+                putFile(hasher, file);
+            }
+        }
+    }
+
+    private static void putFiles(Hasher hasher, File dir)
+    {
+        File[] files = dir.listFiles();
+        if (files == null)
+        {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files)
+        {
+            if (file.isFile())
+            {
+                putFile(hasher, file);
+            }
+        }
+    }
+
+    private static void putFile(Hasher hasher, File file)
+    {
+        hasher.putString(file.getAbsolutePath(), Charsets.UTF_8);
+        hasher.putLong(file.length());
+        hasher.putLong(file.lastModified());
+    }
+}
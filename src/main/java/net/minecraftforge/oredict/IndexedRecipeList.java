@@ -0,0 +1,331 @@
+package net.minecraftforge.oredict;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.item.crafting.ShapedRecipes;
+import net.minecraft.item.crafting.ShapelessRecipes;
+import net.minecraft.world.World;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
+
+/**
+ * The recipe list of the CraftingManager. It behaves like a plain list, but also keeps an index of
+ * the recipes by ingredient, so finding the recipe for a crafting grid only calls matches() on recipes
+ * that use an item or ore present in the grid.
+ *
+ * Only recipes of exactly the ShapedRecipes, ShapelessRecipes, ShapedOreRecipe and ShapelessOreRecipe
+ * classes are indexed, by the item ID or ore ID of one of their ingredients. Everything else, including
+ * subclasses which may match differently, is tried for every grid. Candidates are always tried in list
+ * order, so the result is the same as walking the whole list. Any change to the list drops the index,
+ * it is rebuilt on the next lookup.
+ */
+public class IndexedRecipeList extends AbstractList<IRecipe> implements RandomAccess
+{
+    private final ArrayList<IRecipe> recipes = Lists.newArrayList();
+    private volatile int version = 0;
+    private volatile Index index = null;
+    private final Map<InventoryCrafting, LastHit> lastHits = new MapMaker().weakKeys().makeMap();
+
+    @Override
+    public IRecipe get(int index)
+    {
+        return recipes.get(index);
+    }
+
+    @Override
+    public int size()
+    {
+        return recipes.size();
+    }
+
+    @Override
+    public IRecipe set(int index, IRecipe recipe)
+    {
+        changed();
+        return recipes.set(index, recipe);
+    }
+
+    @Override
+    public void add(int index, IRecipe recipe)
+    {
+        changed();
+        modCount++;
+        recipes.add(index, recipe);
+    }
+
+    @Override
+    public IRecipe remove(int index)
+    {
+        changed();
+        modCount++;
+        return recipes.remove(index);
+    }
+
+    private void changed()
+    {
+        version++;
+        index = null;
+    }
+
+    /**
+     * Used by the CraftingManager, falls back to walking the list if a mod replaced it.
+     */
+    @SuppressWarnings("rawtypes")
+    public static IRecipe findMatchingRecipe(List recipes, InventoryCrafting inv, World world)
+    {
+        if (recipes instanceof IndexedRecipeList)
+        {
+            return ((IndexedRecipeList)recipes).findMatchingRecipe(inv, world);
+        }
+        for (Object recipe : recipes)
+        {
+            if (((IRecipe)recipe).matches(inv, world))
+            {
+                return (IRecipe)recipe;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the first recipe in the list that matches the grid, or null.
+     */
+    public IRecipe findMatchingRecipe(InventoryCrafting inv, World world)
+    {
+        Index idx = index;
+        if (idx == null)
+        {
+            idx = buildIndex();
+        }
+
+        LastHit last = lastHits.get(inv);
+        if (last != null && last.version == idx.version && last.matches(inv))
+        {
+            return last.recipe;
+        }
+
+        BitSet candidates = (BitSet)idx.unindexed.clone();
+        for (int slot = 0; slot < inv.getSizeInventory(); slot++)
+        {
+            ItemStack stack = inv.getStackInSlot(slot);
+            if (stack == null || stack.getItem() == null)
+            {
+                continue;
+            }
+            mark(candidates, idx.keys.get(itemKey(stack.getItem())));
+            for (int ore : OreDictionary.lookupOreIDs(stack))
+            {
+                mark(candidates, idx.keys.get(oreKey(ore)));
+            }
+        }
+
+        for (int x = candidates.nextSetBit(0); x >= 0; x = candidates.nextSetBit(x + 1))
+        {
+            IRecipe recipe = idx.recipes[x];
+            if (recipe.matches(inv, world))
+            {
+                int unindexed = idx.unindexed.nextSetBit(0);
+                if (unindexed < 0 || unindexed > x)
+                {
+                    // Indexed recipes only look at items, damage and NBT, so the same grid will give the same recipe
+                    lastHits.put(inv, new LastHit(idx.version, recipe, inv));
+                }
+                return recipe;
+            }
+        }
+        return null;
+    }
+
+    private static void mark(BitSet candidates, int[] positions)
+    {
+        if (positions != null)
+        {
+            for (int position : positions)
+            {
+                candidates.set(position);
+            }
+        }
+    }
+
+    private synchronized Index buildIndex()
+    {
+        Index idx = index;
+        if (idx != null)
+        {
+            return idx;
+        }
+
+        Map<List<ItemStack>, Integer> ores = new IdentityHashMap<List<ItemStack>, Integer>();
+        for (String name : OreDictionary.getOreNames())
+        {
+            ores.put(OreDictionary.getOres(name), OreDictionary.getOreID(name));
+        }
+
+        int version = this.version;
+        IRecipe[] snapshot = recipes.toArray(new IRecipe[recipes.size()]);
+        BitSet unindexed = new BitSet(snapshot.length);
+        Map<Integer, List<Integer>> keys = Maps.newHashMap();
+        for (int x = 0; x < snapshot.length; x++)
+        {
+            Integer key = getKey(snapshot[x], ores);
+            if (key == null)
+            {
+                unindexed.set(x);
+                continue;
+            }
+            List<Integer> positions = keys.get(key);
+            if (positions == null)
+            {
+                positions = Lists.newArrayList();
+                keys.put(key, positions);
+            }
+            positions.add(x);
+        }
+
+        OreDictionary.BakedIds baked = new OreDictionary.BakedIds(keys.size());
+        for (Map.Entry<Integer, List<Integer>> entry : keys.entrySet())
+        {
+            baked.put(entry.getKey(), Ints.toArray(entry.getValue()));
+        }
+        idx = new Index(version, snapshot, baked, unindexed);
+        if (this.version == version)
+        {
+            index = idx;
+        }
+        return idx;
+    }
+
+    /**
+     * Picks the ingredient the recipe is indexed by, plain items before ores as they narrow it down further.
+     * Returns null for recipes that can't be indexed.
+     */
+    @SuppressWarnings("unchecked")
+    private static Integer getKey(IRecipe recipe, Map<List<ItemStack>, Integer> ores)
+    {
+        Iterable<?> inputs;
+        if (recipe.getClass() == ShapedRecipes.class)
+        {
+            inputs = Arrays.asList(((ShapedRecipes)recipe).recipeItems);
+        }
+        else if (recipe.getClass() == ShapelessRecipes.class)
+        {
+            inputs = ((ShapelessRecipes)recipe).recipeItems;
+        }
+        else if (recipe.getClass() == ShapedOreRecipe.class)
+        {
+            inputs = Arrays.asList(((ShapedOreRecipe)recipe).getInput());
+        }
+        else if (recipe.getClass() == ShapelessOreRecipe.class)
+        {
+            inputs = ((ShapelessOreRecipe)recipe).getInput();
+        }
+        else
+        {
+            return null;
+        }
+
+        Integer oreKey = null;
+        for (Object input : inputs)
+        {
+            if (input instanceof ItemStack && ((ItemStack)input).getItem() != null)
+            {
+                return itemKey(((ItemStack)input).getItem());
+            }
+            else if (input instanceof List && oreKey == null)
+            {
+                Integer ore = ores.get((List<ItemStack>)input);
+                if (ore == null)
+                {
+                    // A list the mod built itself, it may change without us knowing
+                    return null;
+                }
+                oreKey = oreKey(ore);
+            }
+        }
+        return oreKey;
+    }
+
+    private static int itemKey(Item item)
+    {
+        return Item.getIdFromItem(item);
+    }
+
+    private static int oreKey(int ore)
+    {
+        return -ore - 1;
+    }
+
+    private static class Index
+    {
+        private final int version;
+        private final IRecipe[] recipes;
+        private final OreDictionary.BakedIds keys;
+        private final BitSet unindexed;
+
+        private Index(int version, IRecipe[] recipes, OreDictionary.BakedIds keys, BitSet unindexed)
+        {
+            this.version = version;
+            this.recipes = recipes;
+            this.keys = keys;
+            this.unindexed = unindexed;
+        }
+    }
+
+    /**
+     * The last recipe found for a container, with a copy of the grid it was found for.
+     */
+    private static class LastHit
+    {
+        private final int version;
+        private final IRecipe recipe;
+        private final ItemStack[] grid;
+
+        private LastHit(int version, IRecipe recipe, InventoryCrafting inv)
+        {
+            this.version = version;
+            this.recipe = recipe;
+            this.grid = new ItemStack[inv.getSizeInventory()];
+            for (int x = 0; x < grid.length; x++)
+            {
+                ItemStack stack = inv.getStackInSlot(x);
+                grid[x] = stack == null ? null : stack.copy();
+            }
+        }
+
+        private boolean matches(InventoryCrafting inv)
+        {
+            if (inv.getSizeInventory() != grid.length)
+            {
+                return false;
+            }
+            for (int x = 0; x < grid.length; x++)
+            {
+                ItemStack stack = inv.getStackInSlot(x);
+                ItemStack old = grid[x];
+                if (stack == null || old == null)
+                {
+                    if (stack != old) return false;
+                }
+                else if (stack.getItem() != old.getItem() || stack.getItemDamage() != old.getItemDamage() || !ItemStack.areItemStackTagsEqual(stack, old))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package net.minecraftforge.oredict;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -39,6 +40,12 @@ public class OreDictionary
     private static List<List<ItemStack>> idToStack = Lists.newArrayList();
     private static List<List<ItemStack>> idToStackUn = Lists.newArrayList();
     private static Map<Integer, List<Integer>> stackToId = Maps.newHashMap();
+    /**
+     * Primitive copy of stackToId used by the lookups, with the wildcard IDs of an item already merged
+     * into every meta specific entry. Thrown away whenever stackToId changes and rebuilt on the next lookup.
+     */
+    private static volatile BakedIds bakedIds = null;
+    private static final int[] NO_IDS = new int[0];
     public static final ImmutableList<ItemStack> EMPTY_LIST = ImmutableList.of();
 
     /**
@@ -322,19 +329,127 @@ public class OreDictionary
     {
         if (stack == null || stack.getItem() == null) throw new IllegalArgumentException("Stack can not be null!");
 
-        Set<Integer> set = new HashSet<Integer>();
+        int[] ids = lookupOreIDs(stack);
+        return ids.length == 0 ? ids : ids.clone();
+    }
+
+    /**
+     * Checks if the specified item stack is registered to the ore, without allocating anything.
+     *
+     * @param stack The item stack to check
+     * @param oreID The ore ID, see getOreID
+     * @return True if the stack is registered to the ore, either for its meta or as a wildcard
+     */
+    public static boolean containsOre(ItemStack stack, int oreID)
+    {
+        if (stack == null || stack.getItem() == null) throw new IllegalArgumentException("Stack can not be null!");
+
+        for (int id : lookupOreIDs(stack))
+        {
+            if (id == oreID)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
 
+    /**
+     * Returns the shared, sorted array of ore IDs of the stack, must not be modified.
+     */
+    static int[] lookupOreIDs(ItemStack stack)
+    {
+        BakedIds baked = bakedIds;
+        if (baked == null)
+        {
+            baked = bakeIds();
+        }
         int id = Item.getIdFromItem(stack.getItem());
-        List<Integer> ids = stackToId.get(id);
-        if (ids != null) set.addAll(ids);
-        ids = stackToId.get(id | ((stack.getItemDamage() + 1) << 16));
-        if (ids != null) set.addAll(ids);
-
-        Integer[] tmp = set.toArray(new Integer[set.size()]);
-        int[] ret = new int[tmp.length];
-        for (int x = 0; x < tmp.length; x++)
-            ret[x] = tmp[x];
-        return ret;
+        int[] ret = baked.get(id | ((stack.getItemDamage() + 1) << 16));
+        if (ret == null)
+        {
+            ret = baked.get(id);
+        }
+        return ret == null ? NO_IDS : ret;
+    }
+
+    private static synchronized BakedIds bakeIds()
+    {
+        if (bakedIds != null)
+        {
+            return bakedIds;
+        }
+        BakedIds baked = new BakedIds(stackToId.size());
+        for (Entry<Integer, List<Integer>> entry : stackToId.entrySet())
+        {
+            int hash = entry.getKey();
+            Set<Integer> ids = new HashSet<Integer>(entry.getValue());
+            if ((hash & 0xFFFF0000) != 0)
+            {
+                // Meta specific entries also match everything registered for the wildcard
+                List<Integer> wildcard = stackToId.get(hash & 0xFFFF);
+                if (wildcard != null) ids.addAll(wildcard);
+            }
+            int[] ret = new int[ids.size()];
+            int x = 0;
+            for (Integer oreID : ids)
+                ret[x++] = oreID;
+            Arrays.sort(ret);
+            baked.put(hash, ret);
+        }
+        bakedIds = baked;
+        return baked;
+    }
+
+    /**
+     * Open addressing map of int keys to int arrays, filled once when it is built so lookups don't need locking.
+     * Used for the stack hash to ore IDs table, and by {@link IndexedRecipeList}.
+     */
+    static class BakedIds
+    {
+        private final int[] keys;
+        private final int[][] values;
+        private final int mask;
+
+        BakedIds(int size)
+        {
+            int capacity = Integer.highestOneBit(Math.max(size, 8) * 2 - 1) << 1;
+            keys = new int[capacity];
+            values = new int[capacity][];
+            mask = capacity - 1;
+        }
+
+        void put(int key, int[] value)
+        {
+            int slot = mix(key) & mask;
+            while (values[slot] != null && keys[slot] != key)
+            {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        int[] get(int key)
+        {
+            int slot = mix(key) & mask;
+            int[] value;
+            while ((value = values[slot]) != null)
+            {
+                if (keys[slot] == key)
+                {
+                    return value;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        private static int mix(int key)
+        {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
     }
 
     /**
@@ -445,6 +560,7 @@ public class OreDictionary
             stackToId.put(hash, ids);
         }
         ids.add(oreID);
+        bakedIds = null;
 
         //Add to the unbaked version
         ore = ore.copy();
@@ -489,5 +605,6 @@ public class OreDictionary
                 //System.out.println(id + " " + getOreName(id) + " " + Integer.toHexString(hash) + " " + ore);
             }
         }
+        bakedIds = null;
     }
 }
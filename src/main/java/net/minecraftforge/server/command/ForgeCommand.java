@@ -1,5 +1,7 @@
 package net.minecraftforge.server.command;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.text.DecimalFormat;
 import java.util.List;
@@ -12,6 +14,11 @@ import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.BlockPos;
 import net.minecraft.util.ChatComponentTranslation;
 import net.minecraftforge.common.DimensionManager;
+import net.minecraftforge.common.ForgeChunkManager;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.common.util.DormantChunkCache;
+import net.minecraftforge.fml.common.eventhandler.AsyncEventLane;
+import net.minecraftforge.fml.common.eventhandler.EventProfiler;
 import net.minecraftforge.server.ForgeTimeTracker;
 
 public class ForgeCommand extends CommandBase {
@@ -64,6 +71,14 @@ public class ForgeCommand extends CommandBase {
         {
             handleTracking(sender, args);
         }
+        else if ("events".equals(args[0]))
+        {
+            handleEventProfiling(sender, args);
+        }
+        else if ("dormant".equals(args[0]))
+        {
+            displayDormantChunkCache(sender);
+        }
         else
         {
             throw new WrongUsageException("commands.forge.usage");
@@ -75,7 +90,7 @@ public class ForgeCommand extends CommandBase {
     {
         if (args.length == 1)
         {
-            return getListOfStringsMatchingLastWord(args, "tps", "track");
+            return getListOfStringsMatchingLastWord(args, "tps", "track", "events", "dormant");
         }
         else if (args.length == 2)
         {
@@ -86,6 +101,14 @@ public class ForgeCommand extends CommandBase {
             {
                 return getListOfStringsMatchingLastWord(args, "te");
             }
+            else if ("events".equals(args[0]))
+            {
+                return getListOfStringsMatchingLastWord(args, "start", "stop", "dump", "async");
+            }
+        }
+        else if (args.length == 3 && "events".equals(args[0]) && "start".equals(args[1]))
+        {
+            return getListOfStringsMatchingLastWord(args, "allocations");
         }
         return null;
     }
@@ -109,6 +132,73 @@ public class ForgeCommand extends CommandBase {
         }
     }
 
+    private void displayDormantChunkCache(ICommandSender sender)
+    {
+        for (Integer dimId : DimensionManager.getIDs())
+        {
+            DormantChunkCache.Stats stats = ForgeChunkManager.getDormantChunkCacheStats(DimensionManager.getWorld(dimId));
+            if (stats == null)
+            {
+                continue;
+            }
+            sender.addChatMessage(new ChatComponentTranslation("commands.forge.dormant.summary", String.format("Dim %d", dimId), stats.chunks, stats.bytes / 1024, stats.hits, stats.misses, stats.evictions));
+        }
+    }
+
+    private void handleEventProfiling(ICommandSender sender, String[] args) throws CommandException
+    {
+        if (args.length < 2)
+        {
+            throw new WrongUsageException("commands.forge.usage.events");
+        }
+        if ("async".equals(args[1]))
+        {
+            for (AsyncEventLane.Stats stats : MinecraftForge.EVENT_BUS.getAsyncStats())
+            {
+                sender.addChatMessage(new ChatComponentTranslation("commands.forge.events.async", stats.listener, stats.completed, stats.submitted, stats.queued, stats.maxQueued, stats.blocked));
+            }
+            return;
+        }
+        if (!EventProfiler.ENABLED)
+        {
+            sender.addChatMessage(new ChatComponentTranslation("commands.forge.events.disabled"));
+            return;
+        }
+
+        if ("start".equals(args[1]))
+        {
+            boolean allocations = args.length > 2 && "allocations".equals(args[2]);
+            EventProfiler.start(allocations);
+            sender.addChatMessage(new ChatComponentTranslation("commands.forge.events.started"));
+        }
+        else if ("stop".equals(args[1]))
+        {
+            EventProfiler.stop();
+            sender.addChatMessage(new ChatComponentTranslation("commands.forge.events.stopped"));
+        }
+        else if ("dump".equals(args[1]))
+        {
+            try
+            {
+                File file = EventProfiler.dump(getServer().getFile("eventprofiles"));
+                sender.addChatMessage(new ChatComponentTranslation("commands.forge.events.dumped", file.getName()));
+            }
+            catch (IOException e)
+            {
+                throw new CommandException("commands.forge.events.failed", e.getMessage());
+            }
+            List<EventProfiler.Entry> mods = EventProfiler.getMods();
+            for (EventProfiler.Entry mod : mods.subList(0, Math.min(5, mods.size())))
+            {
+                sender.addChatMessage(new ChatComponentTranslation("commands.forge.events.summary", mod.modId, mod.count, timeFormatter.format(mod.totalNanos * 1.0E-6D), timeFormatter.format(mod.maxNanos * 1.0E-6D)));
+            }
+        }
+        else
+        {
+            throw new WrongUsageException("commands.forge.usage.events");
+        }
+    }
+
     private void doTurnOnTileEntityTracking(ICommandSender sender, int duration)
     {
         ForgeTimeTracker.tileEntityTrackingDuration = duration;
@@ -0,0 +1,112 @@
+package net.minecraftforge.common.chunkio;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.ChunkCoordIntPair;
+
+import org.junit.Test;
+
+public class PendingSaveQueueTest
+{
+    private static final ChunkCoordIntPair A = new ChunkCoordIntPair(0, 0);
+    private static final ChunkCoordIntPair B = new ChunkCoordIntPair(1, -1);
+    private static final ChunkCoordIntPair C = new ChunkCoordIntPair(-5, 7);
+
+    @Test
+    public void testResaveKeepsPlace()
+    {
+        PendingSaveQueue queue = new PendingSaveQueue();
+        NBTTagCompound a1 = new NBTTagCompound();
+        NBTTagCompound a2 = new NBTTagCompound();
+        NBTTagCompound b = new NBTTagCompound();
+        assertTrue(queue.add(A, a1));
+        assertTrue(queue.add(B, b));
+        assertFalse("a queued chunk doesn't need the loader queued again", queue.add(A, a2));
+        assertEquals(2, queue.size());
+        assertSame(a2, queue.get(A));
+
+        List<Map.Entry<ChunkCoordIntPair, NBTTagCompound>> batch = queue.drain(10);
+        assertEquals(2, batch.size());
+        assertEquals(A, batch.get(0).getKey());
+        assertSame(a2, batch.get(0).getValue());
+        assertEquals(B, batch.get(1).getKey());
+        assertEquals(0, queue.size());
+        assertTrue(queue.drain(10).isEmpty());
+    }
+
+    @Test
+    public void testDrainInBatches()
+    {
+        PendingSaveQueue queue = new PendingSaveQueue();
+        for (int x = 0; x < 10; x++)
+        {
+            queue.add(new ChunkCoordIntPair(x, 0), new NBTTagCompound());
+        }
+        for (int x = 0; x < 10; x += 3)
+        {
+            List<Map.Entry<ChunkCoordIntPair, NBTTagCompound>> batch = queue.drain(3);
+            assertEquals(Math.min(3, 10 - x), batch.size());
+            for (int y = 0; y < batch.size(); y++)
+            {
+                assertEquals(new ChunkCoordIntPair(x + y, 0), batch.get(y).getKey());
+            }
+        }
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testVisibleUntilWritten()
+    {
+        PendingSaveQueue queue = new PendingSaveQueue();
+        NBTTagCompound a = new NBTTagCompound();
+        queue.add(A, a);
+        queue.drain(1);
+        assertTrue(queue.contains(A));
+        assertSame("drained data is still returned while it is written", a, queue.get(A));
+        queue.written(A, a);
+        assertFalse(queue.contains(A));
+        assertNull(queue.get(A));
+        assertNull(queue.get(C));
+    }
+
+    @Test
+    public void testResaveWhileWriting()
+    {
+        PendingSaveQueue queue = new PendingSaveQueue();
+        NBTTagCompound old = new NBTTagCompound();
+        NBTTagCompound resaved = new NBTTagCompound();
+        queue.add(A, old);
+        queue.drain(1);
+        assertTrue("the loader has to be queued again for the new data", queue.add(A, resaved));
+        assertSame(resaved, queue.get(A));
+
+        queue.written(A, old);
+        assertSame(resaved, queue.get(A));
+        List<Map.Entry<ChunkCoordIntPair, NBTTagCompound>> batch = queue.drain(1);
+        assertSame(resaved, batch.get(0).getValue());
+        assertSame(resaved, queue.get(A));
+        queue.written(A, resaved);
+        assertNull(queue.get(A));
+    }
+
+    @Test
+    public void testOlderWriteFinishesLast()
+    {
+        PendingSaveQueue queue = new PendingSaveQueue();
+        NBTTagCompound old = new NBTTagCompound();
+        NBTTagCompound resaved = new NBTTagCompound();
+        queue.add(A, old);
+        queue.drain(1);
+        queue.add(A, resaved);
+        queue.drain(1);
+        // The first write finishing must not hide the data still being written
+        queue.written(A, old);
+        assertSame(resaved, queue.get(A));
+        queue.written(A, resaved);
+        assertFalse(queue.contains(A));
+    }
+}
@@ -0,0 +1,128 @@
+package net.minecraftforge.common.chunkio;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+import net.minecraftforge.common.ForgeModContainer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+public class RegionFileReaderTest
+{
+    private File path;
+    private RegionFileReader reader;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        path = File.createTempFile("region", ".mca");
+        reader = new RegionFileReader();
+    }
+
+    @After
+    public void tearDown() throws IOException
+    {
+        reader.close();
+        path.delete();
+        ForgeModContainer.chunkIOMappedReads = false;
+    }
+
+    @Test
+    public void testPositionalReads() throws IOException
+    {
+        ForgeModContainer.chunkIOMappedReads = false;
+        checkReads();
+    }
+
+    @Test
+    public void testMappedReads() throws IOException
+    {
+        ForgeModContainer.chunkIOMappedReads = true;
+        checkReads();
+    }
+
+    private void checkReads() throws IOException
+    {
+        byte[] first = chunk(2, 100);
+        write(2, first);
+        assertArrayEquals(first, reader.read(path, 2, 1));
+        assertEquals(2, reader.readVersion(path, 2, 1));
+
+        // Written after the first read, a mapping has to be renewed to see it
+        byte[] second = chunk(1, 5000);
+        write(3, second);
+        assertArrayEquals(second, reader.read(path, 3, 2));
+        assertEquals(1, reader.readVersion(path, 3, 2));
+        assertArrayEquals(first, reader.read(path, 2, 1));
+
+        // Stored lengths that don't fit the sectors
+        assertNull(reader.read(path, 3, 1));
+        assertEquals(0, reader.readVersion(path, 3, 1));
+        write(5, new byte[0]);
+        assertNull(reader.read(path, 5, 1));
+    }
+
+    @Test
+    public void testStripes()
+    {
+        Set<Lock> row = Sets.newIdentityHashSet();
+        Set<Lock> column = Sets.newIdentityHashSet();
+        for (int x = 0; x < 16; x++)
+        {
+            row.add(reader.writeLock(x, 3));
+            column.add(reader.writeLock(3, x));
+        }
+        assertEquals("a row of chunks uses every lock", 16, row.size());
+        assertEquals("a column of chunks uses every lock", 16, column.size());
+        assertSame("chunks of other regions share the locks", reader.writeLock(3, 5), reader.writeLock(3 - 32, 5 + 64));
+    }
+
+    @Test(expected = IOException.class)
+    public void testClosed() throws IOException
+    {
+        write(2, chunk(2, 10));
+        reader.close();
+        reader.read(path, 2, 1);
+    }
+
+    /**
+     * Length prefixed data as a RegionFile stores it, the first byte is the compression type.
+     */
+    private static byte[] chunk(int version, int length)
+    {
+        byte[] data = new byte[length];
+        for (int x = 0; x < length; x++)
+        {
+            data[x] = (byte)(x * 31 + length);
+        }
+        data[0] = (byte)version;
+        return data;
+    }
+
+    private void write(int sector, byte[] data) throws IOException
+    {
+        RandomAccessFile file = new RandomAccessFile(path, "rw");
+        try
+        {
+            int sectors = (data.length + 4) / 4096 + 1;
+            byte[] padded = Arrays.copyOf(data, sectors * 4096 - 4);
+            file.seek(sector * 4096L);
+            file.writeInt(data.length);
+            file.write(padded);
+        }
+        finally
+        {
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package net.minecraftforge.common.util;
+
+import static org.junit.Assert.*;
+
+import net.minecraft.util.BlockPos;
+
+import org.junit.Test;
+
+public class NeighborNotifyBatchTest
+{
+    @Test
+    public void testMerge()
+    {
+        NeighborNotifyBatch batch = new NeighborNotifyBatch();
+        assertTrue(batch.isEmpty());
+        batch.add(new BlockPos(1, 64, 1), 1);
+        batch.add(new BlockPos(-1, 64, -30000000), 2);
+        batch.add(new BlockPos(1, 64, 1), 4);
+        batch.add(new BlockPos(0, 0, 0), 0);
+        batch.add(new BlockPos(-1, 64, -30000000), 2);
+        assertFalse(batch.isEmpty());
+
+        assertArrayEquals(new long[] { new BlockPos(1, 64, 1).toLong(), new BlockPos(-1, 64, -30000000).toLong(), new BlockPos(0, 0, 0).toLong() }, batch.getPositions());
+        assertArrayEquals(new int[] { 5, 2, 0 }, batch.getNotifiedSides());
+    }
+
+    @Test
+    public void testGrow()
+    {
+        NeighborNotifyBatch batch = new NeighborNotifyBatch();
+        for (int round = 0; round < 2; round++)
+        {
+            for (int x = 0; x < 1000; x++)
+            {
+                batch.add(new BlockPos(x & 15, x >> 4, -x), 1 << round);
+            }
+        }
+        long[] positions = batch.getPositions();
+        int[] sides = batch.getNotifiedSides();
+        assertEquals(1000, positions.length);
+        for (int x = 0; x < 1000; x++)
+        {
+            assertEquals(new BlockPos(x & 15, x >> 4, -x).toLong(), positions[x]);
+            assertEquals(3, sides[x]);
+        }
+    }
+
+    @Test
+    public void testClear()
+    {
+        NeighborNotifyBatch batch = new NeighborNotifyBatch();
+        for (int size : new int[] { 10, 5000, 10 })
+        {
+            for (int x = 0; x < size; x++)
+            {
+                batch.add(new BlockPos(x, 0, 0), 1);
+            }
+            assertEquals(size, batch.getPositions().length);
+            batch.clear();
+            assertTrue(batch.isEmpty());
+            assertEquals(0, batch.getPositions().length);
+        }
+        batch.add(new BlockPos(3, 0, 0), 8);
+        assertArrayEquals(new long[] { new BlockPos(3, 0, 0).toLong() }, batch.getPositions());
+        assertArrayEquals(new int[] { 8 }, batch.getNotifiedSides());
+    }
+}
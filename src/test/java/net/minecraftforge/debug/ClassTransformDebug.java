@@ -0,0 +1,164 @@
+package net.minecraftforge.debug;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import net.minecraft.launchwrapper.IClassTransformer;
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.Mod.EventHandler;
+import net.minecraftforge.fml.common.asm.transformers.BlamingTransformer;
+import net.minecraftforge.fml.common.asm.transformers.EventSubscriberTransformer;
+import net.minecraftforge.fml.common.asm.transformers.EventSubscriptionTransformer;
+import net.minecraftforge.fml.common.asm.transformers.FMLClassNodeTransformer;
+import net.minecraftforge.fml.common.asm.transformers.SideTransformer;
+import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+
+/**
+ * Runs the transformers of the FML core plugin over every Minecraft class ROUNDS times, once one after another
+ * as they are normally registered and once as the FMLClassNodeTransformer chain, and prints how long each took.
+ * Both have to reject the same classes for the wrong side and leave the same fields and methods behind.
+ */
+@Mod(modid = "ClassTransformDebug", name = "ClassTransformDebug", version = "0.0.0")
+public class ClassTransformDebug
+{
+    public static final boolean ENABLE = false;
+    private static final int ROUNDS = 5;
+
+    @EventHandler
+    public void preInit(FMLPreInitializationEvent event) throws Exception
+    {
+        if (!ENABLE) return;
+
+        File source = new File(MinecraftServer.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        Map<String, byte[]> classes = Maps.newLinkedHashMap();
+        if (source.isDirectory())
+        {
+            readDirectory(new File(source, "net/minecraft"), "net.minecraft.", classes);
+        }
+        else
+        {
+            readJar(source, classes);
+        }
+
+        IClassTransformer[] sequential = { new BlamingTransformer(), new SideTransformer(), new EventSubscriptionTransformer(), new EventSubscriberTransformer() };
+        IClassTransformer[] chain = { new FMLClassNodeTransformer() };
+        for (int round = 0; round < ROUNDS; round++)
+        {
+            Map<String, String> expected = Maps.newHashMap();
+            Map<String, String> actual = Maps.newHashMap();
+            long sequentialTime = run(classes, sequential, expected);
+            long chainTime = run(classes, chain, actual);
+            System.out.println(String.format("ClassTransformDebug: %d classes, sequential %.1f ms, chain %.1f ms",
+                    classes.size(), sequentialTime / 1.0E6D, chainTime / 1.0E6D));
+            if (!expected.equals(actual))
+            {
+                throw new RuntimeException("The chain transformed some classes differently");
+            }
+        }
+    }
+
+    private static long run(Map<String, byte[]> classes, IClassTransformer[] transformers, Map<String, String> results)
+    {
+        long time = 0;
+        for (Map.Entry<String, byte[]> entry : classes.entrySet())
+        {
+            byte[] bytes = entry.getValue();
+            long start = System.nanoTime();
+            try
+            {
+                for (IClassTransformer transformer : transformers)
+                {
+                    bytes = transformer.transform(entry.getKey(), entry.getKey(), bytes);
+                }
+            }
+            catch (RuntimeException e)
+            {
+                bytes = null;
+            }
+            time += System.nanoTime() - start;
+            results.put(entry.getKey(), describe(bytes));
+        }
+        return time;
+    }
+
+    private static String describe(byte[] bytes)
+    {
+        if (bytes == null)
+        {
+            return "rejected";
+        }
+        ClassNode classNode = new ClassNode();
+        new ClassReader(bytes).accept(classNode, 0);
+        StringBuilder ret = new StringBuilder().append(classNode.access);
+        for (FieldNode field : classNode.fields)
+        {
+            ret.append(' ').append(field.access).append(field.name).append(field.desc);
+        }
+        for (MethodNode method : classNode.methods)
+        {
+            ret.append(' ').append(method.access).append(method.name).append(method.desc).append(method.instructions.size());
+        }
+        return ret.toString();
+    }
+
+    static void readJar(File file, Map<String, byte[]> classes) throws IOException
+    {
+        JarFile jar = new JarFile(file);
+        try
+        {
+            for (Enumeration<JarEntry> entries = jar.entries(); entries.hasMoreElements();)
+            {
+                JarEntry entry = entries.nextElement();
+                if (entry.getName().startsWith("net/minecraft/") && entry.getName().endsWith(".class"))
+                {
+                    InputStream in = jar.getInputStream(entry);
+                    try
+                    {
+                        String name = entry.getName().substring(0, entry.getName().length() - 6).replace('/', '.');
+                        classes.put(name, ByteStreams.toByteArray(in));
+                    }
+                    finally
+                    {
+                        in.close();
+                    }
+                }
+            }
+        }
+        finally
+        {
+            jar.close();
+        }
+    }
+
+    static void readDirectory(File dir, String pkg, Map<String, byte[]> classes) throws IOException
+    {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        for (File file : files)
+        {
+            if (file.isDirectory())
+            {
+                readDirectory(file, pkg + file.getName() + ".", classes);
+            }
+            else if (file.getName().endsWith(".class"))
+            {
+                classes.put(pkg + file.getName().substring(0, file.getName().length() - 6), Files.toByteArray(file));
+            }
+        }
+    }
+}
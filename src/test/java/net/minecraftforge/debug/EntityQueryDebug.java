@@ -0,0 +1,79 @@
+package net.minecraftforge.debug;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.monster.EntityGiantZombie;
+import net.minecraft.entity.passive.EntityChicken;
+import net.minecraft.entity.passive.EntityPig;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.AxisAlignedBB;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.Mod.EventHandler;
+import net.minecraftforge.fml.common.event.FMLServerStartedEvent;
+
+/**
+ * Spawns SMALL pigs and chickens and a few GIANTS over a 256x256 area and times QUERIES small
+ * getEntitiesWithinAABB queries around random points, first with the default MAX_ENTITY_RADIUS and
+ * then with it raised the way mods with large entities do. Queries no longer use it, only the sections
+ * near a giant are searched with the larger reach, so both runs should take about the same time. The
+ * spawned entities are removed again afterwards.
+ */
+@Mod(modid = "EntityQueryDebug", name = "EntityQueryDebug", version = "0.0.0")
+public class EntityQueryDebug
+{
+    public static final boolean ENABLE = false;
+    private static final int SMALL = 4000;
+    private static final int GIANTS = 8;
+    private static final int QUERIES = 200000;
+
+    @EventHandler
+    public void serverStarted(FMLServerStartedEvent event)
+    {
+        if (!ENABLE) return;
+
+        World world = MinecraftServer.getServer().worldServers[0];
+        Random rand = new Random(42);
+        List<Entity> spawned = Lists.newArrayList();
+        for (int x = 0; x < SMALL + GIANTS; x++)
+        {
+            Entity entity = x < GIANTS ? new EntityGiantZombie(world) : rand.nextBoolean() ? new EntityPig(world) : new EntityChicken(world);
+            entity.setPosition(rand.nextInt(256) - 128 + 0.5D, 80 + rand.nextInt(32), rand.nextInt(256) - 128 + 0.5D);
+            if (world.spawnEntityInWorld(entity)) spawned.add(entity);
+        }
+
+        double old = World.MAX_ENTITY_RADIUS;
+        run(world, "default radius", 2); // warmup
+        run(world, "default radius", 2);
+        World.MAX_ENTITY_RADIUS = 16.0D;
+        run(world, "radius 16", 2);
+        World.MAX_ENTITY_RADIUS = old;
+
+        for (Entity entity : spawned)
+        {
+            entity.setDead();
+        }
+    }
+
+    private void run(World world, String name, int size)
+    {
+        Random rand = new Random(7);
+        long found = 0;
+        long start = System.nanoTime();
+        for (int x = 0; x < QUERIES; x++)
+        {
+            double px = rand.nextInt(256) - 128;
+            double py = 80 + rand.nextInt(32);
+            double pz = rand.nextInt(256) - 128;
+            found += world.getEntitiesWithinAABB(EntityLivingBase.class, new AxisAlignedBB(px - size, py - size, pz - size, px + size, py + size, pz + size)).size();
+        }
+        long time = System.nanoTime() - start;
+        System.out.println(String.format("EntityQueryDebug: %s, %d queries in %.1f ms (%.0f ns/query), %d entities found, search radius %.1f",
+                name, QUERIES, time / 1.0E6D, (double)time / QUERIES, found, world.getEntitySearchRadius()));
+    }
+}
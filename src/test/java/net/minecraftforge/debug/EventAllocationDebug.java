@@ -0,0 +1,100 @@
+package net.minecraftforge.debug;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.passive.EntityPig;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.init.Blocks;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.common.ForgeHooks;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.common.util.FakePlayerFactory;
+import net.minecraftforge.event.ForgeEventFactory;
+import net.minecraftforge.event.entity.living.LivingEvent.LivingUpdateEvent;
+import net.minecraftforge.event.entity.player.EntityItemPickupEvent;
+import net.minecraftforge.event.world.BlockEvent.HarvestDropsEvent;
+import net.minecraftforge.event.world.BlockEvent.NeighborNotifyEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.Mod.EventHandler;
+import net.minecraftforge.fml.common.event.FMLServerStartedEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+/**
+ * Measures the bytes allocated by the hottest event hooks, first with nothing listening
+ * so the hooks can skip building the events, then with a listener on each event.
+ * Each round simulates one server tick with ENTITIES living entities and item pickups
+ * and a few hundred harvested blocks and neighbor notifications.
+ */
+@Mod(modid = "EventAllocationDebug", name = "EventAllocationDebug", version = "0.0.0")
+public class EventAllocationDebug
+{
+    public static final boolean ENABLE = false;
+    private static final int ENTITIES = 2000;
+    private static final int BLOCKS = 200;
+    private static final int TICKS = 100;
+
+    @EventHandler
+    public void serverStarted(FMLServerStartedEvent event)
+    {
+        if (!ENABLE) return;
+
+        World world = MinecraftServer.getServer().worldServers[0];
+        EntityPig pig = new EntityPig(world);
+        EntityPlayer player = FakePlayerFactory.getMinecraft(MinecraftServer.getServer().worldServers[0]);
+        EntityItem item = new EntityItem(world, 0, 64, 0, new ItemStack(Blocks.dirt));
+        List<ItemStack> drops = new ArrayList<ItemStack>();
+
+        run(world, pig, player, item, drops); // warmup
+        long idle = run(world, pig, player, item, drops);
+        MinecraftForge.EVENT_BUS.register(this);
+        long listening = run(world, pig, player, item, drops);
+        MinecraftForge.EVENT_BUS.unregister(this);
+
+        System.out.println(String.format("EventAllocationDebug: %d bytes/tick without listeners, %d bytes/tick with listeners, %d bytes/tick saved",
+                idle / TICKS, listening / TICKS, (listening - idle) / TICKS));
+    }
+
+    private long run(World world, EntityPig pig, EntityPlayer player, EntityItem item, List<ItemStack> drops)
+    {
+        BlockPos pos = new BlockPos(0, 64, 0);
+        long start = allocatedBytes();
+        for (int tick = 0; tick < TICKS; tick++)
+        {
+            for (int x = 0; x < ENTITIES; x++)
+            {
+                ForgeHooks.onLivingUpdate(pig);
+                ForgeEventFactory.canEntityUpdate(pig);
+                ForgeEventFactory.onItemPickup(item, player, item.getEntityItem());
+            }
+            for (int x = 0; x < BLOCKS; x++)
+            {
+                ForgeEventFactory.fireBlockHarvesting(drops, world, pos, Blocks.stone.getDefaultState(), 0, 1.0F, false, player);
+                ForgeEventFactory.fireNeighborNotify(world, pos, NeighborNotifyEvent.ALL_SIDES);
+            }
+        }
+        return allocatedBytes() - start;
+    }
+
+    private static long allocatedBytes()
+    {
+        return ((com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @SubscribeEvent
+    public void onLivingUpdate(LivingUpdateEvent event) {}
+
+    @SubscribeEvent
+    public void onItemPickup(EntityItemPickupEvent event) {}
+
+    @SubscribeEvent
+    public void onHarvestDrops(HarvestDropsEvent event) {}
+
+    @SubscribeEvent
+    public void onNeighborNotify(NeighborNotifyEvent event) {}
+}
@@ -0,0 +1,96 @@
+package net.minecraftforge.debug;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraft.world.World;
+import net.minecraftforge.common.ForgeChunkManager;
+import net.minecraftforge.common.ForgeChunkManager.Ticket;
+import net.minecraftforge.common.ForgeChunkManager.Type;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.Mod.EventHandler;
+import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
+import net.minecraftforge.fml.common.event.FMLServerStartedEvent;
+
+/**
+ * Measures the bytes allocated by the forced chunk check World.updateEntityWithOptionalForce does for
+ * every entity, once through getPersistentChunks() with a new ChunkCoordIntPair and once through
+ * World.isChunkForced. Each round simulates one tick of ENTITIES entities spread over a 32x32 chunk
+ * area of which FORCED chunks are forced.
+ */
+@Mod(modid = "ForcedChunkCheckDebug", name = "ForcedChunkCheckDebug", version = "0.0.0")
+public class ForcedChunkCheckDebug
+{
+    public static final boolean ENABLE = false;
+    private static final int ENTITIES = 5000;
+    private static final int FORCED = 20;
+    private static final int TICKS = 100;
+
+    @EventHandler
+    public void preInit(FMLPreInitializationEvent event)
+    {
+        if (!ENABLE) return;
+        ForgeChunkManager.setForcedChunkLoadingCallback(this, new ForgeChunkManager.LoadingCallback()
+        {
+            @Override
+            public void ticketsLoaded(List<Ticket> tickets, World world) {}
+        });
+    }
+
+    @EventHandler
+    public void serverStarted(FMLServerStartedEvent event)
+    {
+        if (!ENABLE) return;
+
+        World world = MinecraftServer.getServer().worldServers[0];
+        Ticket ticket = ForgeChunkManager.requestTicket(this, world, Type.NORMAL);
+        if (ticket == null) return;
+        Random rand = new Random(42);
+        for (int x = 0; x < FORCED; x++)
+        {
+            ForgeChunkManager.forceChunk(ticket, new ChunkCoordIntPair(rand.nextInt(32), rand.nextInt(32)));
+        }
+
+        int[] positions = new int[ENTITIES * 2];
+        for (int x = 0; x < positions.length; x++)
+        {
+            positions[x] = rand.nextInt(512);
+        }
+
+        run(world, positions, false); // warmup
+        run(world, positions, true);
+        long[] multimap = run(world, positions, false);
+        long[] index = run(world, positions, true);
+        ForgeChunkManager.releaseTicket(ticket);
+
+        System.out.println(String.format("ForcedChunkCheckDebug: getPersistentChunks %d bytes/tick %.3f ms/tick, isChunkForced %d bytes/tick %.3f ms/tick (%d forced hits)",
+                multimap[0] / TICKS, multimap[1] / 1.0E6D / TICKS, index[0] / TICKS, index[1] / 1.0E6D / TICKS, index[2] / TICKS));
+    }
+
+    private long[] run(World world, int[] positions, boolean indexed)
+    {
+        long forced = 0;
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        for (int tick = 0; tick < TICKS; tick++)
+        {
+            for (int x = 0; x < positions.length; x += 2)
+            {
+                int i = positions[x];
+                int j = positions[x + 1];
+                boolean isForced = indexed ? world.isChunkForced(i >> 4, j >> 4) : world.getPersistentChunks().containsKey(new ChunkCoordIntPair(i >> 4, j >> 4));
+                if (isForced) forced++;
+            }
+        }
+        long time = System.nanoTime() - start;
+        return new long[] { allocatedBytes() - bytes, time, forced };
+    }
+
+    private static long allocatedBytes()
+    {
+        return ((com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
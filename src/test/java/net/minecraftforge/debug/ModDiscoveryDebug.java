@@ -0,0 +1,130 @@
+package net.minecraftforge.debug;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.Mod.EventHandler;
+import net.minecraftforge.fml.common.discovery.ModDiscoverer;
+import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import com.google.common.io.Files;
+
+/**
+ * Writes JARS synthetic mod jars of CLASSES classes each, every jar with one @Mod class and a few annotated
+ * classes, and times ModDiscoverer.identifyMods over them with one discovery thread and with the default
+ * number, then twice more with a scan cache, the second time from the cache. All runs have to find the same
+ * mods and annotations. The jars are deleted afterwards.
+ */
+@Mod(modid = "ModDiscoveryDebug", name = "ModDiscoveryDebug", version = "0.0.0")
+public class ModDiscoveryDebug
+{
+    public static final boolean ENABLE = false;
+    private static final int JARS = 250;
+    private static final int CLASSES = 400;
+
+    @EventHandler
+    public void preInit(FMLPreInitializationEvent event) throws IOException
+    {
+        if (!ENABLE) return;
+
+        File dir = Files.createTempDir();
+        try
+        {
+            for (int x = 0; x < JARS; x++)
+            {
+                writeJar(new File(dir, String.format("synthetic%03d.jar", x)), x);
+            }
+
+            run(dir, "1", null); // warmup
+            String single = run(dir, "1", null);
+            String parallel = run(dir, null, null);
+            if (!single.equals(parallel))
+            {
+                throw new RuntimeException("Parallel discovery found something else: " + single + " vs " + parallel);
+            }
+            File cache = new File(dir, "scancache.bin");
+            run(dir, null, cache);
+            String cached = run(dir, null, cache);
+            if (!single.equals(cached))
+            {
+                throw new RuntimeException("Cached discovery found something else: " + single + " vs " + cached);
+            }
+        }
+        finally
+        {
+            for (File file : dir.listFiles())
+            {
+                file.delete();
+            }
+            dir.delete();
+        }
+    }
+
+    private String run(File dir, String threads, File cache)
+    {
+        if (threads == null)
+        {
+            System.clearProperty("fml.discoveryThreads");
+        }
+        else
+        {
+            System.setProperty("fml.discoveryThreads", threads);
+        }
+        ModDiscoverer discoverer = new ModDiscoverer();
+        if (cache != null)
+        {
+            discoverer.setScanCache(cache);
+        }
+        discoverer.findModDirMods(dir);
+        long start = System.nanoTime();
+        int mods = discoverer.identifyMods().size();
+        long time = System.nanoTime() - start;
+        int annotations = discoverer.getASMTable().getAll(Deprecated.class.getName()).size();
+        System.out.println(String.format("ModDiscoveryDebug: %s threads%s, %d jars in %.1f ms, %d mods, %d annotations",
+                threads == null ? "default" : threads, cache != null ? " with scan cache" : "", JARS, time / 1.0E6D, mods, annotations));
+        System.clearProperty("fml.discoveryThreads");
+        return mods + "/" + annotations;
+    }
+
+    private static void writeJar(File file, int index) throws IOException
+    {
+        JarOutputStream jar = new JarOutputStream(new FileOutputStream(file));
+        try
+        {
+            for (int x = 0; x < CLASSES; x++)
+            {
+                String name = String.format("synthetic/mod%03d/Class%03d", index, x);
+                ClassWriter cw = new ClassWriter(0);
+                cw.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+                if (x == 0)
+                {
+                    AnnotationVisitor av = cw.visitAnnotation(Type.getDescriptor(Mod.class), true);
+                    av.visit("modid", String.format("synthetic%03d", index));
+                    av.visit("version", "1.0");
+                    av.visitEnd();
+                }
+                else if (x % 20 == 0)
+                {
+                    cw.visitAnnotation(Type.getDescriptor(Deprecated.class), true).visitEnd();
+                }
+                cw.visitEnd();
+                jar.putNextEntry(new JarEntry(name + ".class"));
+                jar.write(cw.toByteArray());
+                jar.closeEntry();
+            }
+        }
+        finally
+        {
+            jar.close();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package net.minecraftforge.debug;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.Mod.EventHandler;
+import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
+import net.minecraftforge.fml.common.event.FMLServerStartedEvent;
+import net.minecraftforge.fml.common.network.NetworkRegistry;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import net.minecraftforge.fml.common.network.simpleimpl.SimpleNetworkWrapper;
+import net.minecraftforge.fml.relauncher.Side;
+
+/**
+ * Sends MESSAGES small messages to everyone in the overworld through a SimpleNetworkWrapper, first from
+ * one thread and then split over THREADS threads, and prints the messages sent per second. Before sends
+ * went straight to their target the threads raced on the target of the shared channel, now they should
+ * scale. Join with a client or two, the counts also show up on their side.
+ */
+@Mod(modid = "NetworkSendDebug", name = "NetworkSendDebug", version = "0.0.0")
+public class NetworkSendDebug
+{
+    public static final boolean ENABLE = false;
+    private static final int MESSAGES = 100000;
+    private static final int THREADS = 4;
+    private static final AtomicLong received = new AtomicLong();
+    private SimpleNetworkWrapper network;
+
+    @EventHandler
+    public void preInit(FMLPreInitializationEvent event)
+    {
+        if (!ENABLE) return;
+        network = NetworkRegistry.INSTANCE.newSimpleChannel("NetworkSendDebug");
+        network.registerMessage(Handler.class, Message.class, 0, Side.CLIENT);
+    }
+
+    @EventHandler
+    public void serverStarted(FMLServerStartedEvent event)
+    {
+        if (!ENABLE) return;
+        run(1); // warmup
+        run(1);
+        run(THREADS);
+    }
+
+    private void run(final int threads)
+    {
+        final CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        for (int x = 0; x < threads; x++)
+        {
+            final int id = x;
+            new Thread("NetworkSendDebug-" + x)
+            {
+                @Override
+                public void run()
+                {
+                    for (int y = id; y < MESSAGES; y += threads)
+                    {
+                        network.sendToDimension(new Message(y), 0);
+                    }
+                    done.countDown();
+                }
+            }.start();
+        }
+        try
+        {
+            done.await();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long time = System.nanoTime() - start;
+        System.out.println(String.format("NetworkSendDebug: %d threads, %d messages in %.1f ms (%.0f messages/s)",
+                threads, MESSAGES, time / 1.0E6D, MESSAGES / (time / 1.0E9D)));
+    }
+
+    public static class Message implements IMessage
+    {
+        private int value;
+
+        public Message()
+        {
+        }
+
+        public Message(int value)
+        {
+            this.value = value;
+        }
+
+        @Override
+        public void fromBytes(ByteBuf buf)
+        {
+            value = buf.readInt();
+        }
+
+        @Override
+        public void toBytes(ByteBuf buf)
+        {
+            buf.writeInt(value);
+        }
+    }
+
+    public static class Handler implements IMessageHandler<Message, IMessage>
+    {
+        @Override
+        public IMessage onMessage(Message message, MessageContext ctx)
+        {
+            long count = received.incrementAndGet();
+            if (count % MESSAGES == 0)
+            {
+                System.out.println("NetworkSendDebug: received " + count + " messages");
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package net.minecraftforge.debug;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Items;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.Mod.EventHandler;
+import net.minecraftforge.fml.common.event.FMLPostInitializationEvent;
+import net.minecraftforge.oredict.OreDictionary;
+
+/**
+ * Compares the time and bytes allocated by the old getOreIDs, which merged boxed IDs into a HashSet on
+ * every call, with the baked OreDictionary.getOreIDs and OreDictionary.containsOre, for a mix of stacks
+ * with wildcard, meta specific and no ore registrations. The old lookup runs on a copy of the ore
+ * registrations built here.
+ */
+@Mod(modid = "OreDictionaryLookupDebug", name = "OreDictionaryLookupDebug", version = "0.0.0")
+public class OreDictionaryLookupDebug
+{
+    public static final boolean ENABLE = false;
+    private static final int ROUNDS = 1000000;
+
+    @EventHandler
+    public void postInit(FMLPostInitializationEvent event)
+    {
+        if (!ENABLE) return;
+
+        ItemStack[] stacks = {
+            new ItemStack(Blocks.planks, 1, 2),
+            new ItemStack(Blocks.log, 1, 0),
+            new ItemStack(Items.dye, 1, 4),
+            new ItemStack(Items.iron_ingot),
+            new ItemStack(Blocks.dirt)
+        };
+        int oreID = OreDictionary.getOreID("plankWood");
+        Map<Integer, List<Integer>> stackToId = buildStackToId();
+
+        for (int round = 0; round < 2; round++) // the first round is the warmup
+        {
+            oldGetOreIDs(stacks, oreID, stackToId);
+            getOreIDs(stacks, oreID);
+            containsOre(stacks, oreID);
+        }
+    }
+
+    private static Map<Integer, List<Integer>> buildStackToId()
+    {
+        Map<Integer, List<Integer>> stackToId = Maps.newHashMap();
+        for (String name : OreDictionary.getOreNames())
+        {
+            int oreID = OreDictionary.getOreID(name);
+            for (ItemStack ore : OreDictionary.getOres(name))
+            {
+                int hash = Item.getIdFromItem(ore.getItem());
+                if (ore.getItemDamage() != OreDictionary.WILDCARD_VALUE)
+                {
+                    hash |= ((ore.getItemDamage() + 1) << 16);
+                }
+                List<Integer> ids = stackToId.get(hash);
+                if (ids == null)
+                {
+                    ids = Lists.newArrayList();
+                    stackToId.put(hash, ids);
+                }
+                if (!ids.contains(oreID)) ids.add(oreID);
+            }
+        }
+        return stackToId;
+    }
+
+    private void oldGetOreIDs(ItemStack[] stacks, int oreID, Map<Integer, List<Integer>> stackToId)
+    {
+        int found = 0;
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        for (int x = 0; x < ROUNDS; x++)
+        {
+            ItemStack stack = stacks[x % stacks.length];
+            Set<Integer> set = new HashSet<Integer>();
+            int id = Item.getIdFromItem(stack.getItem());
+            List<Integer> ids = stackToId.get(id);
+            if (ids != null) set.addAll(ids);
+            ids = stackToId.get(id | ((stack.getItemDamage() + 1) << 16));
+            if (ids != null) set.addAll(ids);
+            Integer[] tmp = set.toArray(new Integer[set.size()]);
+            int[] ret = new int[tmp.length];
+            for (int y = 0; y < tmp.length; y++)
+                ret[y] = tmp[y];
+
+            for (int ore : ret)
+            {
+                if (ore == oreID) found++;
+            }
+        }
+        print("old getOreIDs", start, bytes, found);
+    }
+
+    private void getOreIDs(ItemStack[] stacks, int oreID)
+    {
+        int found = 0;
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        for (int x = 0; x < ROUNDS; x++)
+        {
+            for (int id : OreDictionary.getOreIDs(stacks[x % stacks.length]))
+            {
+                if (id == oreID) found++;
+            }
+        }
+        print("getOreIDs", start, bytes, found);
+    }
+
+    private void containsOre(ItemStack[] stacks, int oreID)
+    {
+        int found = 0;
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        for (int x = 0; x < ROUNDS; x++)
+        {
+            if (OreDictionary.containsOre(stacks[x % stacks.length], oreID)) found++;
+        }
+        print("containsOre", start, bytes, found);
+    }
+
+    private static void print(String name, long start, long bytes, int found)
+    {
+        long time = System.nanoTime() - start;
+        System.out.println(String.format("OreDictionaryLookupDebug: %s %.1f ns/op, %d bytes/op, %d matches",
+                name, (double)time / ROUNDS, (allocatedBytes() - bytes) / ROUNDS, found));
+    }
+
+    private static long allocatedBytes()
+    {
+        return ((com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
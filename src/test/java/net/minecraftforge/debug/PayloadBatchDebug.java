@@ -0,0 +1,98 @@
+package net.minecraftforge.debug;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableSet;
+
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.Mod.EventHandler;
+import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
+import net.minecraftforge.fml.common.network.NetworkRegistry;
+import net.minecraftforge.fml.common.network.internal.FMLProxyPacket;
+import net.minecraftforge.fml.common.network.internal.PayloadBatch;
+
+/**
+ * Loopback test of channel batching, no connection needed. Every simulated tick MESSAGES machine state
+ * messages are batched the way the server batches them for a player, and the batch is unpacked again the
+ * way the client does. Prints the bytes sent with and without batching and the time packing and unpacking
+ * adds to a tick, and checks every message arrives unchanged and in order.
+ */
+@Mod(modid = "PayloadBatchDebug", name = "PayloadBatchDebug", version = "0.0.0")
+public class PayloadBatchDebug
+{
+    public static final boolean ENABLE = false;
+    private static final String CHANNEL = "BatchDebug";
+    private static final int MESSAGES = 200;
+    private static final int TICKS = 1000;
+
+    @EventHandler
+    public void preInit(FMLPreInitializationEvent event)
+    {
+        if (!ENABLE) return;
+        NetworkRegistry.INSTANCE.enableBatching(CHANNEL, "machineprogressenergyactive".getBytes(Charsets.UTF_8));
+
+        Random rand = new Random(42);
+        PayloadBatch batch = new PayloadBatch(CHANNEL, NetworkRegistry.INSTANCE.getBatchDictionary(CHANNEL));
+        long saved = PayloadBatch.getBytesSaved();
+        long worst = 0;
+        long total = 0;
+        for (int tick = 0; tick < TICKS; tick++)
+        {
+            ByteBuf[] sent = new ByteBuf[MESSAGES];
+            for (int x = 0; x < MESSAGES; x++)
+            {
+                sent[x] = message(rand);
+            }
+
+            long start = System.nanoTime();
+            List<FMLProxyPacket> received;
+            try
+            {
+                for (ByteBuf payload : sent)
+                {
+                    batch.add(payload);
+                }
+                received = PayloadBatch.unpack(new PacketBuffer(batch.pack().payload()), ImmutableSet.of(CHANNEL));
+            }
+            catch (Exception e)
+            {
+                throw new RuntimeException(e);
+            }
+            long time = System.nanoTime() - start;
+            worst = Math.max(worst, time);
+            total += time;
+
+            if (received.size() != MESSAGES)
+            {
+                throw new RuntimeException("Expected " + MESSAGES + " messages, got " + received.size());
+            }
+            for (int x = 0; x < MESSAGES; x++)
+            {
+                if (!received.get(x).payload().equals(sent[x]) || !CHANNEL.equals(received.get(x).channel()))
+                {
+                    throw new RuntimeException("Message " + x + " of tick " + tick + " changed");
+                }
+            }
+        }
+        System.out.println(String.format("PayloadBatchDebug: %d messages in %d batches, %d bytes saved, %.3f ms/tick average, %.3f ms worst",
+                MESSAGES * TICKS, TICKS, PayloadBatch.getBytesSaved() - saved, total / 1.0E6D / TICKS, worst / 1.0E6D));
+    }
+
+    private static ByteBuf message(Random rand)
+    {
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeByte(0); // discriminator
+        buf.writeInt(rand.nextInt(64));
+        buf.writeByte(rand.nextInt(256));
+        buf.writeInt(rand.nextInt(64));
+        buf.writeBytes(rand.nextBoolean() ? "machineactive".getBytes(Charsets.UTF_8) : "machineprogress".getBytes(Charsets.UTF_8));
+        buf.writeShort(rand.nextInt(100));
+        return buf;
+    }
+}
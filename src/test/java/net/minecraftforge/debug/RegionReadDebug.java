@@ -0,0 +1,118 @@
+package net.minecraftforge.debug;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.Lists;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.chunk.storage.RegionFile;
+import net.minecraft.world.chunk.storage.RegionFileCache;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.Mod.EventHandler;
+import net.minecraftforge.fml.common.event.FMLServerStartedEvent;
+
+/**
+ * Reads every stored chunk of the overworld from THREADS threads at once, first through the synchronized
+ * vanilla stream and then through the lock striped raw reads used by the chunk IO threads, and prints the
+ * throughput of both. The stream also inflates the data, the raw reads leave that to the next chunk IO step.
+ * Both run twice, the first round also warms up the OS file cache.
+ */
+@Mod(modid = "RegionReadDebug", name = "RegionReadDebug", version = "0.0.0")
+public class RegionReadDebug
+{
+    public static final boolean ENABLE = false;
+    private static final int THREADS = 4;
+
+    @EventHandler
+    public void serverStarted(FMLServerStartedEvent event) throws Exception
+    {
+        if (!ENABLE) return;
+
+        File dir = MinecraftServer.getServer().worldServers[0].getChunkSaveLocation();
+        File[] files = new File(dir, "region").listFiles();
+        if (files == null) return;
+
+        final List<int[]> chunks = Lists.newArrayList();
+        for (File file : files)
+        {
+            String[] parts = file.getName().split("\\.");
+            if (parts.length != 4 || !"mca".equals(parts[3])) continue;
+            int rx = Integer.parseInt(parts[1]);
+            int rz = Integer.parseInt(parts[2]);
+            RegionFile region = RegionFileCache.createOrLoadRegionFile(dir, rx << 5, rz << 5);
+            for (int x = 0; x < 32; x++)
+            {
+                for (int z = 0; z < 32; z++)
+                {
+                    if (region.chunkExists(x, z))
+                    {
+                        chunks.add(new int[] { (rx << 5) + x, (rz << 5) + z });
+                    }
+                }
+            }
+        }
+
+        for (int round = 0; round < 2; round++)
+        {
+            run("stream", dir, chunks, false);
+            run("raw", dir, chunks, true);
+        }
+    }
+
+    private void run(String name, final File dir, final List<int[]> chunks, final boolean raw) throws InterruptedException
+    {
+        final AtomicLong bytes = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++)
+        {
+            final int offset = t;
+            pool.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    byte[] buf = new byte[8192];
+                    for (int i = offset; i < chunks.size(); i += THREADS)
+                    {
+                        int[] chunk = chunks.get(i);
+                        RegionFile region = RegionFileCache.createOrLoadRegionFile(dir, chunk[0], chunk[1]);
+                        if (raw)
+                        {
+                            byte[] data = region.getChunkRawData(chunk[0] & 31, chunk[1] & 31);
+                            if (data != null) bytes.addAndGet(data.length);
+                            continue;
+                        }
+                        DataInputStream in = region.getChunkDataInputStream(chunk[0] & 31, chunk[1] & 31);
+                        if (in == null) continue;
+                        try
+                        {
+                            int read;
+                            while ((read = in.read(buf)) > 0)
+                            {
+                                bytes.addAndGet(read);
+                            }
+                            in.close();
+                        }
+                        catch (IOException e)
+                        {
+                            e.printStackTrace();
+                        }
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        long time = System.nanoTime() - start;
+        System.out.println(String.format("RegionReadDebug: %s read %d chunks (%d bytes) with %d threads in %.1f ms, %.0f chunks/s",
+                name, chunks.size(), bytes.get(), THREADS, time / 1.0E6D, chunks.size() / (time / 1.0E9D)));
+    }
+}
@@ -0,0 +1,96 @@
+package net.minecraftforge.debug;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.launchwrapper.IClassTransformer;
+import net.minecraft.launchwrapper.Launch;
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.Mod.EventHandler;
+import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
+import net.minecraftforge.fml.relauncher.TransformedClassCache;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Cold and warm runs of the transformed class cache over every Minecraft class, with the transformers the
+ * game was started with. The cold run starts from an empty cache file and transforms everything, the warm
+ * run opens the same file again and should get everything from it, with the same bytes. Prints the time of
+ * both, the warm one including opening the file.
+ */
+@Mod(modid = "TransformedClassCacheDebug", name = "TransformedClassCacheDebug", version = "0.0.0")
+public class TransformedClassCacheDebug
+{
+    public static final boolean ENABLE = false;
+
+    @EventHandler
+    public void preInit(FMLPreInitializationEvent event) throws Exception
+    {
+        if (!ENABLE) return;
+
+        File source = new File(MinecraftServer.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        Map<String, byte[]> classes = Maps.newLinkedHashMap();
+        if (source.isDirectory())
+        {
+            ClassTransformDebug.readDirectory(new File(source, "net/minecraft"), "net.minecraft.", classes);
+        }
+        else
+        {
+            ClassTransformDebug.readJar(source, classes);
+        }
+
+        TransformedClassCache installed = TransformedClassCache.getInstance();
+        List<IClassTransformer> transformers = installed != null ? installed.getTransformers() : Launch.classLoader.getTransformers();
+        File file = File.createTempFile("classcache", ".bin");
+        try
+        {
+            Map<String, byte[]> cold = Maps.newHashMap();
+            long coldTime = run(new TransformedClassCache(file, transformers), classes, cold);
+            Map<String, byte[]> warm = Maps.newHashMap();
+            long warmTime = run(new TransformedClassCache(file, transformers), classes, warm);
+            System.out.println(String.format("TransformedClassCacheDebug: %d classes, cold %.1f ms, warm %.1f ms, cache file %d KB",
+                    classes.size(), coldTime / 1.0E6D, warmTime / 1.0E6D, file.length() / 1024));
+
+            for (Map.Entry<String, byte[]> entry : cold.entrySet())
+            {
+                if (!Arrays.equals(entry.getValue(), warm.get(entry.getKey())))
+                {
+                    throw new RuntimeException("The cache returned other bytes for " + entry.getKey());
+                }
+            }
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    private static long run(TransformedClassCache cache, Map<String, byte[]> classes, Map<String, byte[]> results) throws Exception
+    {
+        long start = System.nanoTime();
+        try
+        {
+            for (Map.Entry<String, byte[]> entry : classes.entrySet())
+            {
+                try
+                {
+                    results.put(entry.getKey(), cache.transform(entry.getKey(), entry.getKey(), entry.getValue()));
+                }
+                catch (RuntimeException e)
+                {
+                    // Classes of the other side
+                }
+            }
+        }
+        finally
+        {
+            cache.close();
+        }
+        long time = System.nanoTime() - start;
+        System.out.println("TransformedClassCacheDebug: " + cache.getStatistics());
+        return time;
+    }
+}
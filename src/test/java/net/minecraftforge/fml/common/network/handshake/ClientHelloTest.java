@@ -0,0 +1,69 @@
+package net.minecraftforge.fml.common.network.handshake;
+
+import static org.junit.Assert.*;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.util.Set;
+
+import net.minecraftforge.fml.common.network.NetworkRegistry;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+public class ClientHelloTest
+{
+    private static final Set<String> CHANNELS = ImmutableSet.of("test:plain", "test:dict");
+
+    private static FMLHandshakeMessage.ClientHello read(ByteBuf buffer)
+    {
+        FMLHandshakeMessage.ClientHello hello = new FMLHandshakeMessage.ClientHello();
+        hello.fromBytes(buffer);
+        assertFalse("the whole hello is read", buffer.isReadable());
+        return hello;
+    }
+
+    @Test
+    public void testVersion3()
+    {
+        ByteBuf buffer = Unpooled.buffer();
+        new FMLHandshakeMessage.ClientHello((byte)3, CHANNELS).toBytes(buffer);
+
+        FMLHandshakeMessage.ClientHello hello = read(buffer);
+        assertEquals(NetworkRegistry.FML_PROTOCOL, hello.protocolVersion());
+        assertEquals(CHANNELS, hello.batchedChannels());
+    }
+
+    @Test
+    public void testVersion3NoChannels()
+    {
+        ByteBuf buffer = Unpooled.buffer();
+        new FMLHandshakeMessage.ClientHello((byte)3, ImmutableSet.<String>of()).toBytes(buffer);
+
+        FMLHandshakeMessage.ClientHello hello = read(buffer);
+        assertEquals(NetworkRegistry.FML_PROTOCOL, hello.protocolVersion());
+        assertTrue(hello.batchedChannels().isEmpty());
+    }
+
+    @Test
+    public void testToVersion2Server()
+    {
+        // A version 2 server reads the protocol byte and nothing else
+        ByteBuf buffer = Unpooled.buffer();
+        new FMLHandshakeMessage.ClientHello((byte)2, CHANNELS).toBytes(buffer);
+        assertEquals(1, buffer.readableBytes());
+        assertEquals(NetworkRegistry.FML_PROTOCOL, buffer.readByte());
+    }
+
+    @Test
+    public void testFromVersion2Client()
+    {
+        ByteBuf buffer = Unpooled.buffer();
+        buffer.writeByte(2);
+
+        FMLHandshakeMessage.ClientHello hello = read(buffer);
+        assertEquals(2, hello.protocolVersion());
+        assertTrue("an older client is never sent batches", hello.batchedChannels().isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+package net.minecraftforge.fml.common.network.handshake;
+
+import static org.junit.Assert.*;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import net.minecraft.network.Packet;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.network.play.server.S3FPacketCustomPayload;
+import net.minecraftforge.fml.common.network.handshake.NetworkDispatcher.MultiPartCustomPayload;
+import net.minecraftforge.fml.common.network.internal.FMLProxyPacket;
+
+import org.junit.Test;
+
+public class MultiPartCustomPayloadTest
+{
+    private static final int PART_SIZE = FMLProxyPacket.MAX_LENGTH / 255;
+    private static final int SKIPPED = 7;
+
+    private static ByteBuf payload(int length)
+    {
+        byte[] data = new byte[SKIPPED + length];
+        new Random(length).nextBytes(data);
+        ByteBuf buf = Unpooled.wrappedBuffer(data);
+        buf.readerIndex(SKIPPED);
+        return buf;
+    }
+
+    private static S3FPacketCustomPayload s3f(Packet packet)
+    {
+        return (S3FPacketCustomPayload)packet;
+    }
+
+    @Test
+    public void testSplitAndReassemble() throws IOException
+    {
+        ByteBuf source = payload(PART_SIZE * 2 + 100);
+        FMLProxyPacket proxy = new FMLProxyPacket(new PacketBuffer(source), "TESTCHANNEL");
+        List<Packet> packets = proxy.toS3FPackets();
+
+        assertEquals("preamble and three parts", 4, packets.size());
+        for (Packet packet : packets)
+        {
+            assertEquals("FML|MP", s3f(packet).getChannelName());
+        }
+        assertEquals("splitting doesn't consume the payload", SKIPPED, source.readerIndex());
+
+        MultiPartCustomPayload multipart = new MultiPartCustomPayload(s3f(packets.get(0)).getBufferData());
+        for (int x = 1; x < packets.size(); x++)
+        {
+            assertFalse(multipart.isComplete());
+            multipart.processPart(s3f(packets.get(x)).getBufferData());
+        }
+
+        assertTrue(multipart.isComplete());
+        assertEquals("TESTCHANNEL", multipart.getChannelName());
+        ByteBuf result = multipart.getBufferData();
+        assertEquals(source.readableBytes(), result.readableBytes());
+        assertTrue("reassembled payload differs", ByteBufUtil.equals(source, result));
+    }
+
+    @Test
+    public void testSmallPayloadIsNotSplit() throws IOException
+    {
+        ByteBuf source = payload(100);
+        List<Packet> packets = new FMLProxyPacket(new PacketBuffer(source), "TESTCHANNEL").toS3FPackets();
+
+        assertEquals(1, packets.size());
+        assertEquals("TESTCHANNEL", s3f(packets.get(0)).getChannelName());
+        assertTrue(ByteBufUtil.equals(source, s3f(packets.get(0)).getBufferData()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testPartOutOfOrder() throws IOException
+    {
+        List<Packet> packets = new FMLProxyPacket(new PacketBuffer(payload(PART_SIZE + 100)), "TESTCHANNEL").toS3FPackets();
+        MultiPartCustomPayload multipart = new MultiPartCustomPayload(s3f(packets.get(0)).getBufferData());
+        multipart.processPart(s3f(packets.get(2)).getBufferData());
+    }
+}
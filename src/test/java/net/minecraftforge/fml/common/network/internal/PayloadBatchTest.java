@@ -0,0 +1,216 @@
+package net.minecraftforge.fml.common.network.internal;
+
+import static org.junit.Assert.*;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.network.NetworkRegistry;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+public class PayloadBatchTest
+{
+    private static final String PLAIN = "test:plain";
+    private static final String DICT = "test:dict";
+    private static final byte[] DICTIONARY = "entityId position motion rotation".getBytes(Charsets.UTF_8);
+    private static final Set<String> ACCEPTED = ImmutableSet.of(PLAIN, DICT);
+
+    @BeforeClass
+    public static void setup()
+    {
+        NetworkRegistry.INSTANCE.enableBatching(PLAIN, null);
+        NetworkRegistry.INSTANCE.enableBatching(DICT, DICTIONARY);
+    }
+
+    private static ByteBuf message(String text)
+    {
+        return Unpooled.copiedBuffer(text, Charsets.UTF_8);
+    }
+
+    private static List<FMLProxyPacket> roundTrip(PayloadBatch batch, List<ByteBuf> messages) throws IOException
+    {
+        for (ByteBuf message : messages)
+        {
+            assertTrue(batch.add(message));
+        }
+        List<FMLProxyPacket> received = PayloadBatch.unpack(new PacketBuffer(batch.pack().payload()), ACCEPTED);
+        assertEquals(messages.size(), received.size());
+        for (int x = 0; x < messages.size(); x++)
+        {
+            assertTrue("message " + x + " differs", ByteBufUtil.equals(messages.get(x), received.get(x).payload()));
+        }
+        assertTrue(batch.isEmpty());
+        return received;
+    }
+
+    private static byte flags(FMLProxyPacket packet)
+    {
+        PacketBuffer frame = new PacketBuffer(packet.payload().duplicate());
+        frame.readStringFromBuffer(20);
+        return frame.readByte();
+    }
+
+    @Test
+    public void testEmpty() throws IOException
+    {
+        PayloadBatch batch = new PayloadBatch(PLAIN, null);
+        assertTrue(batch.isEmpty());
+        assertTrue(PayloadBatch.unpack(new PacketBuffer(batch.pack().payload()), ACCEPTED).isEmpty());
+
+        List<FMLProxyPacket> received = roundTrip(batch, Lists.newArrayList(Unpooled.buffer(0), message("a"), Unpooled.buffer(0)));
+        assertEquals(0, received.get(0).payload().readableBytes());
+        assertEquals(PLAIN, received.get(1).channel());
+    }
+
+    @Test
+    public void testAddDoesNotConsume()
+    {
+        ByteBuf message = message("hello");
+        message.readByte();
+        PayloadBatch batch = new PayloadBatch(PLAIN, null);
+        assertTrue(batch.add(message));
+        assertEquals(1, message.readerIndex());
+    }
+
+    @Test
+    public void testUncompressed() throws IOException
+    {
+        PayloadBatch batch = new PayloadBatch(PLAIN, null);
+        batch.add(message("short"));
+        assertEquals("small batches are not compressed", 0, flags(batch.pack()));
+    }
+
+    @Test
+    public void testCompressed() throws IOException
+    {
+        List<ByteBuf> messages = Lists.newArrayList();
+        for (int x = 0; x < 100; x++)
+        {
+            messages.add(message("entity " + x + " moved to " + Strings.repeat("0", x % 7)));
+        }
+        PayloadBatch batch = new PayloadBatch(PLAIN, null);
+        for (ByteBuf message : messages)
+        {
+            batch.add(message);
+        }
+        FMLProxyPacket packet = batch.pack();
+        assertEquals(1, flags(packet));
+
+        List<FMLProxyPacket> received = PayloadBatch.unpack(new PacketBuffer(packet.payload()), ACCEPTED);
+        assertEquals(messages.size(), received.size());
+        for (int x = 0; x < messages.size(); x++)
+        {
+            assertTrue(ByteBufUtil.equals(messages.get(x), received.get(x).payload()));
+        }
+
+        assertTrue("the batch is reusable", batch.isEmpty());
+        roundTrip(batch, messages.subList(0, 3));
+    }
+
+    @Test
+    public void testDictionary() throws IOException
+    {
+        List<ByteBuf> messages = Lists.newArrayList();
+        for (int x = 0; x < 50; x++)
+        {
+            messages.add(message("entityId " + x + " position motion rotation"));
+        }
+        PayloadBatch batch = new PayloadBatch(DICT, NetworkRegistry.INSTANCE.getBatchDictionary(DICT));
+        List<FMLProxyPacket> received = roundTrip(batch, messages);
+        assertEquals(DICT, received.get(0).channel());
+    }
+
+    @Test(expected = IOException.class)
+    public void testWrongDictionary() throws IOException
+    {
+        // Packed with a dictionary the receiver doesn't have for the channel
+        PayloadBatch batch = new PayloadBatch(PLAIN, DICTIONARY);
+        for (int x = 0; x < 50; x++)
+        {
+            batch.add(message("entityId " + x + " position motion rotation"));
+        }
+        FMLProxyPacket packet = batch.pack();
+        assertEquals(1, flags(packet));
+        PayloadBatch.unpack(new PacketBuffer(packet.payload()), ACCEPTED);
+    }
+
+    @Test
+    public void testOversized() throws IOException
+    {
+        PayloadBatch batch = new PayloadBatch(PLAIN, null);
+        assertFalse("larger than a batch", batch.add(Unpooled.buffer(PayloadBatch.MAX_SIZE)));
+        assertTrue(batch.isEmpty());
+
+        List<ByteBuf> messages = Lists.newArrayList();
+        int size = PayloadBatch.MAX_SIZE / 4;
+        while (batch.add(Unpooled.buffer(size).writerIndex(size)))
+        {
+            messages.add(Unpooled.buffer(size).writerIndex(size));
+        }
+        assertEquals(3, messages.size());
+        List<FMLProxyPacket> received = PayloadBatch.unpack(new PacketBuffer(batch.pack().payload()), ACCEPTED);
+        assertEquals(3, received.size());
+        for (int x = 0; x < messages.size(); x++)
+        {
+            assertTrue(ByteBufUtil.equals(messages.get(x), received.get(x).payload()));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testOversizedCompressedLength() throws IOException
+    {
+        PacketBuffer frame = new PacketBuffer(Unpooled.buffer());
+        frame.writeString(PLAIN);
+        frame.writeByte(1);
+        ByteBufUtils.writeVarInt(frame, PayloadBatch.MAX_SIZE + 1, 5);
+        frame.writeBytes(new byte[16]);
+        PayloadBatch.unpack(frame, ACCEPTED);
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncated() throws IOException
+    {
+        PayloadBatch batch = new PayloadBatch(PLAIN, null);
+        batch.add(message("first"));
+        batch.add(message("second"));
+        ByteBuf frame = batch.pack().payload();
+        frame.writerIndex(frame.writerIndex() - 1);
+        PayloadBatch.unpack(new PacketBuffer(frame), ACCEPTED);
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedCompressed() throws IOException
+    {
+        PayloadBatch batch = new PayloadBatch(PLAIN, null);
+        for (int x = 0; x < 100; x++)
+        {
+            batch.add(message("entity " + x + " moved"));
+        }
+        FMLProxyPacket packet = batch.pack();
+        assertEquals(1, flags(packet));
+        ByteBuf frame = packet.payload();
+        frame.writerIndex(frame.writerIndex() - 4);
+        PayloadBatch.unpack(new PacketBuffer(frame), ACCEPTED);
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotNegotiated() throws IOException
+    {
+        PayloadBatch batch = new PayloadBatch(PLAIN, null);
+        batch.add(message("hello"));
+        PayloadBatch.unpack(new PacketBuffer(batch.pack().payload()), ImmutableSet.of(DICT));
+    }
+}
@@ -0,0 +1,75 @@
+package net.minecraftforge.oredict;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+
+public class BakedIdsTest
+{
+    @Test
+    public void testEmpty()
+    {
+        OreDictionary.BakedIds baked = new OreDictionary.BakedIds(0);
+        assertNull(baked.get(0));
+        assertNull(baked.get(-1));
+        assertNull(baked.get(Integer.MIN_VALUE));
+    }
+
+    @Test
+    public void testEdgeKeys()
+    {
+        int[] keys = { 0, -1, 1, Integer.MIN_VALUE, Integer.MAX_VALUE, 0xFFFF, 0x10000 };
+        OreDictionary.BakedIds baked = new OreDictionary.BakedIds(keys.length);
+        for (int key : keys)
+        {
+            baked.put(key, new int[] { key });
+        }
+        for (int key : keys)
+        {
+            assertArrayEquals("value of " + key, new int[] { key }, baked.get(key));
+        }
+        assertNull(baked.get(2));
+    }
+
+    @Test
+    public void testReplace()
+    {
+        OreDictionary.BakedIds baked = new OreDictionary.BakedIds(1);
+        int[] first = { 1 };
+        int[] second = { 2, 3 };
+        baked.put(5, first);
+        baked.put(5, second);
+        assertSame(second, baked.get(5));
+    }
+
+    @Test
+    public void testStackHashes()
+    {
+        // Keys shaped like the stack hashes of the OreDictionary, item ID in the low bits and damage + 1 above
+        Map<Integer, int[]> expected = Maps.newHashMap();
+        Random rand = new Random(42);
+        for (int item = 0; item < 2000; item++)
+        {
+            expected.put(item, new int[] { rand.nextInt() });
+            expected.put(item | ((rand.nextInt(16) + 1) << 16), new int[] { rand.nextInt(), rand.nextInt() });
+        }
+        OreDictionary.BakedIds baked = new OreDictionary.BakedIds(expected.size());
+        for (Map.Entry<Integer, int[]> entry : expected.entrySet())
+        {
+            baked.put(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<Integer, int[]> entry : expected.entrySet())
+        {
+            assertSame("value of " + entry.getKey(), entry.getValue(), baked.get(entry.getKey()));
+        }
+        for (int item = 2000; item < 4000; item++)
+        {
+            assertNull("missing " + item, baked.get(item));
+        }
+    }
+}
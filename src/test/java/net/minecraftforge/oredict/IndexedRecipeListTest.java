@@ -0,0 +1,192 @@
+package net.minecraftforge.oredict;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.inventory.Container;
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.item.crafting.ShapedRecipes;
+import net.minecraft.item.crafting.ShapelessRecipes;
+import net.minecraft.world.World;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class IndexedRecipeListTest
+{
+    private IndexedRecipeList recipes;
+    private IRecipe sticks;
+    private IRecipe diamond;
+    private IRecipe planks;
+    private IRecipe coalCustom;
+    private IRecipe coal;
+
+    @BeforeClass
+    public static void bootstrap()
+    {
+        Bootstrap.register();
+    }
+
+    @Before
+    public void setUp()
+    {
+        ItemStack output = new ItemStack(Items.apple);
+        sticks = new ShapelessRecipes(output, Lists.newArrayList(new ItemStack(Items.stick), new ItemStack(Items.stick)));
+        diamond = new ShapedRecipes(1, 1, new ItemStack[] { new ItemStack(Items.diamond) }, output);
+        planks = new ShapelessOreRecipe(output, "plankWood");
+        coalCustom = new CustomRecipe(Items.coal);
+        coal = new ShapelessRecipes(output, Lists.newArrayList(new ItemStack(Items.coal)));
+
+        recipes = new IndexedRecipeList();
+        recipes.add(sticks);
+        recipes.add(diamond);
+        recipes.add(planks);
+        recipes.add(coalCustom);
+        recipes.add(coal);
+    }
+
+    @Test
+    public void testListOrder()
+    {
+        check(null);
+        check(sticks, new ItemStack(Items.stick), new ItemStack(Items.stick));
+        check(null, new ItemStack(Items.stick));
+        check(diamond, new ItemStack(Items.diamond));
+        check(planks, new ItemStack(Blocks.planks, 1, 3));
+        // The unindexed recipe comes first, so it wins over the indexed one
+        check(coalCustom, new ItemStack(Items.coal));
+    }
+
+    @Test
+    public void testChanges()
+    {
+        check(coalCustom, new ItemStack(Items.coal));
+        recipes.remove(coalCustom);
+        check(coal, new ItemStack(Items.coal));
+
+        recipes.set(recipes.indexOf(diamond), new ShapelessRecipes(new ItemStack(Items.apple), Lists.newArrayList(new ItemStack(Items.stick))));
+        check(null, new ItemStack(Items.diamond));
+        check(recipes.get(1), new ItemStack(Items.stick));
+
+        recipes.add(0, new CustomRecipe(Items.stick));
+        check(recipes.get(0), new ItemStack(Items.stick), new ItemStack(Items.stick));
+        recipes.clear();
+        check(null, new ItemStack(Items.stick), new ItemStack(Items.stick));
+    }
+
+    @Test
+    public void testChangedGrid()
+    {
+        InventoryCrafting inv = grid(new ItemStack(Items.diamond));
+        assertSame(diamond, recipes.findMatchingRecipe(inv, null));
+        inv.setInventorySlotContents(0, new ItemStack(Items.stick));
+        inv.setInventorySlotContents(1, new ItemStack(Items.stick));
+        assertSame(sticks, recipes.findMatchingRecipe(inv, null));
+        inv.setInventorySlotContents(1, null);
+        assertNull(recipes.findMatchingRecipe(inv, null));
+        inv.setInventorySlotContents(0, new ItemStack(Blocks.planks, 1, 1));
+        assertSame(planks, recipes.findMatchingRecipe(inv, null));
+        inv.setInventorySlotContents(0, new ItemStack(Items.diamond));
+        assertSame(diamond, recipes.findMatchingRecipe(inv, null));
+    }
+
+    @Test
+    public void testPlainList()
+    {
+        List<IRecipe> plain = Lists.newArrayList(recipes);
+        assertSame(diamond, IndexedRecipeList.findMatchingRecipe(plain, grid(new ItemStack(Items.diamond)), null));
+        assertSame(coalCustom, IndexedRecipeList.findMatchingRecipe(plain, grid(new ItemStack(Items.coal)), null));
+        assertNull(IndexedRecipeList.findMatchingRecipe(plain, grid(), null));
+    }
+
+    /**
+     * Checks the indexed lookup against walking the list, twice so the second lookup can use the last hit.
+     */
+    private void check(IRecipe expected, ItemStack... stacks)
+    {
+        InventoryCrafting inv = grid(stacks);
+        IRecipe linear = null;
+        for (IRecipe recipe : recipes)
+        {
+            if (recipe.matches(inv, null))
+            {
+                linear = recipe;
+                break;
+            }
+        }
+        assertSame(expected, linear);
+        assertSame(expected, recipes.findMatchingRecipe(inv, null));
+        assertSame(expected, recipes.findMatchingRecipe(inv, null));
+    }
+
+    private static InventoryCrafting grid(ItemStack... stacks)
+    {
+        InventoryCrafting inv = new InventoryCrafting(new Container()
+        {
+            @Override
+            public boolean canInteractWith(EntityPlayer player)
+            {
+                return false;
+            }
+        }, 3, 3);
+        for (int x = 0; x < stacks.length; x++)
+        {
+            inv.setInventorySlotContents(x, stacks[x]);
+        }
+        return inv;
+    }
+
+    /**
+     * Matches any grid with the item in its first slot, never indexed.
+     */
+    private static class CustomRecipe implements IRecipe
+    {
+        private final Item item;
+
+        private CustomRecipe(Item item)
+        {
+            this.item = item;
+        }
+
+        @Override
+        public boolean matches(InventoryCrafting inv, World world)
+        {
+            return inv.getStackInSlot(0) != null && inv.getStackInSlot(0).getItem() == item;
+        }
+
+        @Override
+        public ItemStack getCraftingResult(InventoryCrafting inv)
+        {
+            return null;
+        }
+
+        @Override
+        public int getRecipeSize()
+        {
+            return 1;
+        }
+
+        @Override
+        public ItemStack getRecipeOutput()
+        {
+            return null;
+        }
+
+        @Override
+        public ItemStack[] getRemainingItems(InventoryCrafting inv)
+        {
+            return new ItemStack[inv.getSizeInventory()];
+        }
+    }
+}